@@ -0,0 +1,71 @@
+package snake;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * AIPlanner 单次决策耗时的JMH基准测试
+ *
+ * 在不同尺寸的棋盘上随机放置障碍物(约占20%的格子)，反复从随机起点向随机目标做决策，
+ * 按采样模式输出每次决策耗时的平均值和p50/p99/p999等分位数；
+ * 加上 -prof gc 时 gc.alloc.rate.norm 为每次决策分配的内存字节数(应为0)。
+ * 用法: gradle jmhJar && java -jar build/libs/snake_game_java-jmh.jar AIPlannerBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AIPlannerBenchmark {
+    private static final double OBSTACLE_RATIO = 0.2;  // 障碍物占比
+    private static final int SNAKE_LENGTH = 50;  // 安全检查使用的蛇长
+    private static final int QUERY_MASK = 2047;  // 预先生成的起点/目标数-1
+
+    @Param({"38", "100", "250", "500"})  // 棋盘边长(38为游戏默认宽度)
+    public int boardSize;
+
+    private AIPlanner planner;
+    private IntPredicate blocked;
+    private int[] heads;
+    private int[] targets;
+    private int next;  // 下一组起点/目标的序号
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(42);
+        OccupancyGrid grid = new OccupancyGrid(boardSize, boardSize, null);
+        for (int col = 0; col < boardSize; col++) {
+            for (int row = 0; row < boardSize; row++) {
+                if (rand.nextDouble() < OBSTACLE_RATIO) grid.add(Cell.of(col, row));
+            }
+        }
+        planner = new AIPlanner(boardSize, boardSize);
+        heads = new int[QUERY_MASK + 1];
+        targets = new int[QUERY_MASK + 1];
+        for (int i = 0; i <= QUERY_MASK; i++) {
+            heads[i] = SimulationBenchmark.randomFreeCell(grid, boardSize, rand);
+            targets[i] = SimulationBenchmark.randomFreeCell(grid, boardSize, rand);
+        }
+        blocked = grid::contains;
+    }
+
+    @Benchmark
+    public Direction decide() {
+        int i = next++ & QUERY_MASK;
+        return planner.decide(heads[i], SNAKE_LENGTH, Direction.RIGHT, targets[i], blocked);
+    }
+}
@@ -0,0 +1,148 @@
+package snake;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 无显示设备的画面绘制JMH基准测试
+ *
+ * 在 java.awt.headless=true 下用 GameRenderer 把不同场景的快照反复绘制到离屏图片，
+ * 按采样模式逐帧计时，输出帧耗时的p50/p99/p999；加上 -prof gc 时 gc.alloc.rate.norm 为每帧分配的字节数。
+ * 可以在没有显示器的CI机器上运行。
+ * 场景：菜单界面、超长的蛇、大量粒子、大量障碍物、竞技场模式的真实局面。
+ * 需要在项目根目录下运行，以便加载 snake_game_java-main/ 中的图片。
+ * 用法: gradle jmhJar && java -jar build/libs/snake_game_java-jmh.jar RenderBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark {
+    private static final int FRAME_WIDTH = 800;  // 与主窗口大小一致
+    private static final int FRAME_HEIGHT = 800;
+    private static final int LONG_SNAKE_LENGTH = 1000;  // 超长蛇的节数
+    private static final int OBSTACLE_COUNT = 1000;  // 障碍物数量
+    private static final int PARTICLE_COUNT = 1024;  // 粒子数量
+    private static final int ARENA_WARMUP_TICKS = 50;  // 竞技场场景先推进的帧数
+
+    @Param({"menu", "long-snake", "many-particles", "many-obstacles", "arena"})
+    public String scenario;
+
+    private final GameRenderer renderer = new GameRenderer();
+    private final BufferedImage target = new BufferedImage(FRAME_WIDTH, FRAME_HEIGHT, BufferedImage.TYPE_INT_RGB);
+    private RenderSnapshot frame;  // 反复绘制的快照
+
+    @Setup
+    public void setup() {
+        renderer.loadImages(() -> { }).join();
+        switch (scenario) {
+            case "menu": frame = menu(); break;
+            case "long-snake": frame = longSnake(); break;
+            case "many-particles": frame = manyParticles(); break;
+            case "many-obstacles": frame = manyObstacles(); break;
+            case "arena": frame = arena(); break;
+            default: throw new IllegalArgumentException("未知场景: " + scenario);
+        }
+    }
+
+    /**
+     * 绘制一帧
+     * 与窗口绘制一样先用底色清屏，再交给绘制器
+     */
+    @Benchmark
+    public void drawFrame() {
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setColor(Color.black);
+            g.fillRect(0, 0, FRAME_WIDTH, FRAME_HEIGHT);
+            renderer.render(g, frame);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // 模式选择界面
+    private static RenderSnapshot menu() {
+        RenderSnapshot frame = new RenderSnapshot();
+        frame.capture(null, GameStatus.MODE_SELECT, GameMode.CLASSIC, 0, 0, -1, true, new ParticleSystem());
+        return frame;
+    }
+
+    // 单人模式中一条蛇形铺满大半个棋盘的长蛇
+    private static RenderSnapshot longSnake() {
+        RenderSnapshot frame = running(GameMode.CLASSIC);
+        frame.snake = new int[LONG_SNAKE_LENGTH];
+        for (int i = 0; i < LONG_SNAKE_LENGTH; i++) {
+            int row = i / Simulation.COLS;
+            int col = i % Simulation.COLS;
+            frame.snake[i] = Cell.of(row % 2 == 0 ? col : Simulation.COLS - 1 - col, row);
+        }
+        frame.snakeLength = LONG_SNAKE_LENGTH;
+        return frame;
+    }
+
+    // 粒子系统满载(吃食物的彩色粒子)
+    private static RenderSnapshot manyParticles() {
+        RenderSnapshot frame = running(GameMode.CLASSIC);
+        ParticleSystem effects = new ParticleSystem();
+        Random rand = new Random(1);
+        while (effects.size() < PARTICLE_COUNT) {
+            effects.spawn(rand.nextInt(Simulation.WIDTH) + Simulation.OFFSET_X,
+                    rand.nextInt(Simulation.HEIGHT) + Simulation.OFFSET_Y,
+                    0, 0, ParticleSystem.randomColor(rand), 2 + rand.nextInt(4), 1 + rand.nextInt(40));
+        }
+        effects.copyTo(frame.particles);
+        return frame;
+    }
+
+    // 无尽障碍模式中铺满障碍物(一半为移动障碍物)
+    private static RenderSnapshot manyObstacles() {
+        RenderSnapshot frame = running(GameMode.OBSTACLE);
+        Random rand = new Random(2);
+        frame.obstacles = new int[OBSTACLE_COUNT];
+        frame.obstacleMoving = new boolean[OBSTACLE_COUNT];
+        for (int i = 0; i < OBSTACLE_COUNT; i++) {
+            frame.obstacles[i] = Cell.of(rand.nextInt(Simulation.COLS), rand.nextInt(Simulation.ROWS));
+            frame.obstacleMoving[i] = rand.nextBoolean();
+        }
+        frame.obstacleCount = OBSTACLE_COUNT;
+        return frame;
+    }
+
+    // 竞技场模式推进若干帧后的真实局面
+    private static RenderSnapshot arena() {
+        Simulation sim = new Simulation(GameMode.ARENA, 3);
+        for (int i = 0; i < ARENA_WARMUP_TICKS && !sim.isOver(); i++) {
+            sim.tick(null, false);
+        }
+        RenderSnapshot frame = new RenderSnapshot();
+        frame.capture(sim, GameStatus.RUNNING, GameMode.ARENA, 0, System.currentTimeMillis(), -1, true,
+                new ParticleSystem());
+        return frame;
+    }
+
+    // 刚开局的运行中快照
+    private static RenderSnapshot running(GameMode mode) {
+        RenderSnapshot frame = new RenderSnapshot();
+        frame.capture(new Simulation(mode, 0), GameStatus.RUNNING, mode, 0, System.currentTimeMillis(), -1, true,
+                new ParticleSystem());
+        return frame;
+    }
+}
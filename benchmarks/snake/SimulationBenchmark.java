@@ -0,0 +1,307 @@
+package snake;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 模拟核心热点路径的JMH基准测试
+ *
+ * 覆盖蛇的移动和包含查询、游戏结束检测、接近满盘时生成苹果、上千个障碍物的移动与碰撞、
+ * AI蛇决策，以及各模式下完整的一帧推进。按蛇长(length)和棋盘尺寸(boardSize)参数化，
+ * 作为性能基线，每次修改核心代码后重新运行对比。
+ * 用法: gradle jmhJar && java -jar build/libs/snake_game_java-jmh.jar SimulationBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+    private static final double AI_OBSTACLE_RATIO = 0.2;  // AI决策测试中障碍物占比
+    private static final int QUERY_MASK = 1023;  // 预先生成的查询格子数-1
+
+    // 默认棋盘上沿哈密顿回路前进的蛇
+    @State(Scope.Thread)
+    public static class SnakeState {
+        @Param({"16", "256", "1024"})  // 不超过默认棋盘格数
+        public int length;
+
+        Direction[] cycle;
+        Snake snake;
+        int[] queries;
+        int next;  // 下一个查询的序号
+
+        @Setup
+        public void setup() {
+            cycle = hamiltonianCycle();
+            snake = growOnCycle(new Snake(Cell.of(2, 0)), length, cycle);
+            queries = randomCells(Simulation.COLS, Simulation.ROWS, new Random(1));
+        }
+    }
+
+    // 障碍物模式的模拟：蛇长length，另有obstacles个障碍物
+    @State(Scope.Thread)
+    public static class GameOverState {
+        @Param({"16", "256", "1024"})
+        public int length;
+
+        @Param({"0", "250"})
+        public int obstacles;
+
+        Simulation sim;
+
+        @Setup
+        public void setup() {
+            sim = obstacleScene(length, obstacles);
+        }
+    }
+
+    // boardSize x boardSize 的棋盘只剩free个空格
+    @State(Scope.Thread)
+    public static class FullBoardState {
+        @Param({"38", "100", "250"})  // 38为游戏默认宽度
+        public int boardSize;
+
+        @Param({"1", "16"})
+        public int free;
+
+        FreeCellIndex board;
+        Random rand;
+
+        @Setup
+        public void setup() {
+            board = new FreeCellIndex(boardSize, boardSize);
+            int keep = boardSize * boardSize - free;
+            for (int n = 0; n < keep; n++) {
+                board.occupy(Cell.of(n % boardSize, n / boardSize));
+            }
+            rand = new Random(3);
+        }
+    }
+
+    // 默认棋盘(共1368格)上的障碍物模式，蛇长256
+    @State(Scope.Thread)
+    public static class ObstacleState {
+        @Param({"250", "1000"})
+        public int obstacles;
+
+        Simulation sim;
+
+        @Setup
+        public void setup() {
+            sim = obstacleScene(256, obstacles);
+        }
+    }
+
+    // 随机障碍物棋盘上的一组随机起点和目标
+    @State(Scope.Thread)
+    public static class AIState {
+        @Param({"38", "100", "250"})
+        public int boardSize;
+
+        @Param({"16", "256", "1024"})
+        public int length;
+
+        GreedyStrategy greedy;
+        AIPlanner planner;
+        IntPredicate blocked;
+        int[] heads;
+        int[] targets;
+        int next;
+
+        @Setup
+        public void setup() {
+            Random rand = new Random(5);
+            OccupancyGrid grid = new OccupancyGrid(boardSize, boardSize, null);
+            for (int col = 0; col < boardSize; col++) {
+                for (int row = 0; row < boardSize; row++) {
+                    if (rand.nextDouble() < AI_OBSTACLE_RATIO) grid.add(Cell.of(col, row));
+                }
+            }
+            heads = new int[QUERY_MASK + 1];
+            targets = new int[QUERY_MASK + 1];
+            for (int n = 0; n <= QUERY_MASK; n++) {
+                heads[n] = randomFreeCell(grid, boardSize, rand);
+                targets[n] = randomFreeCell(grid, boardSize, rand);
+            }
+            int size = boardSize;
+            blocked = cell -> !inBounds(cell, size) || grid.contains(cell);
+            greedy = new GreedyStrategy();
+            planner = new AIPlanner(boardSize, boardSize);
+        }
+    }
+
+    // 完整的模拟，玩家由规划器控制，一局结束后换一个种子重开
+    @State(Scope.Thread)
+    public static class TickState {
+        @Param({"CLASSIC", "AI", "SPEEDUP", "OBSTACLE", "ARENA"})
+        public GameMode mode;
+
+        final AIStrategy player = new AIPlanner();
+        Simulation sim;
+        IntPredicate blocked;
+        long seed;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            restart();
+        }
+
+        void restart() {
+            sim = new Simulation(mode, seed++);
+            blocked = sim::isBlocked;
+        }
+    }
+
+    // Snake.move：沿哈密顿回路移动，蛇长保持不变
+    @Benchmark
+    public int snakeMove(SnakeState s) {
+        s.snake.forceTurn(s.cycle[indexOf(s.snake.getHeadCell())]);
+        s.snake.move();
+        return s.snake.getHeadCell();
+    }
+
+    // Snake.contains：随机查询默认棋盘上的格子
+    @Benchmark
+    public boolean snakeContains(SnakeState s) {
+        return s.snake.contains(s.queries[s.next++ & QUERY_MASK]);
+    }
+
+    // Simulation.checkForGameOver
+    @Benchmark
+    public boolean checkForGameOver(GameOverState s) {
+        s.sim.checkForGameOver();
+        return s.sim.isCrashed();
+    }
+
+    // spawnApple：棋盘只剩少量空格时随机取一格放置，随后吃掉释放
+    @Benchmark
+    public int spawnApple(FullBoardState s) {
+        int cell = s.board.randomFree(s.rand);
+        s.board.occupy(cell);
+        s.board.release(cell);
+        return cell;
+    }
+
+    // Simulation.moveObstacles：障碍物模式中一帧的障碍物移动、索引更新和撞蛇检查
+    @Benchmark
+    public int moveObstacles(ObstacleState s) {
+        s.sim.moveObstacles();
+        return s.sim.getObstacles().size();
+    }
+
+    // AI蛇决策(moveAISnake的主要开销)：贪心策略
+    @Benchmark
+    public Direction greedyDecide(AIState s) {
+        int i = s.next++ & QUERY_MASK;
+        return s.greedy.decide(s.heads[i], s.length, Direction.RIGHT, s.targets[i], s.blocked);
+    }
+
+    // AI蛇决策：BFS规划器加连通区域安全检查
+    @Benchmark
+    public Direction plannerDecide(AIState s) {
+        int i = s.next++ & QUERY_MASK;
+        return s.planner.decide(s.heads[i], s.length, Direction.RIGHT, s.targets[i], s.blocked);
+    }
+
+    // 完整的一帧推进
+    @Benchmark
+    public int simulationTick(TickState s) {
+        if (s.sim.isOver()) s.restart();
+        Snake snake = s.sim.getSnake();
+        s.sim.tick(s.player.decide(snake.getHeadCell(), snake.getTailSize() + 1, snake.getDirection(),
+                s.sim.getApple(), s.blocked), false);
+        return s.sim.getPoints();
+    }
+
+    /**
+     * 障碍物模式的模拟：玩家的蛇沿回路长到length节，再由模拟自身生成count个障碍物
+     * 初始的蛇位于棋盘中央的偶数行、朝右，正好在回路上
+     */
+    private static Simulation obstacleScene(int length, int count) {
+        Simulation sim = new Simulation(GameMode.OBSTACLE, 4);
+        growOnCycle(sim.getSnake(), length, hamiltonianCycle());
+        for (int n = 0; n < count; n++) {
+            sim.spawnObstacle();
+        }
+        return sim;
+    }
+
+    /**
+     * 默认棋盘上的一条哈密顿回路(行数为偶数时存在)
+     * 第0行向右走到底，之后在第1列及以右蛇形往返，最后沿第0列向上回到起点
+     * @return 每格(下标 row * COLS + col)的下一步方向
+     */
+    private static Direction[] hamiltonianCycle() {
+        int cols = Simulation.COLS;
+        int rows = Simulation.ROWS;
+        Direction[] next = new Direction[cols * rows];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                Direction d;
+                if (row == 0) {
+                    d = col < cols - 1 ? Direction.RIGHT : Direction.DOWN;
+                } else if (col == 0) {
+                    d = Direction.UP;
+                } else if (row % 2 == 1) {
+                    d = col > 1 ? Direction.LEFT : (row == rows - 1 ? Direction.LEFT : Direction.DOWN);
+                } else {
+                    d = col < cols - 1 ? Direction.RIGHT : Direction.DOWN;
+                }
+                next[row * cols + col] = d;
+            }
+        }
+        return next;
+    }
+
+    // 让回路上的蛇沿回路前进并长到指定长度
+    private static Snake growOnCycle(Snake snake, int length, Direction[] cycle) {
+        while (snake.getTailSize() + 1 < length) {
+            snake.setNeedGrow();
+            snake.forceTurn(cycle[indexOf(snake.getHeadCell())]);
+            snake.move();
+        }
+        return snake;
+    }
+
+    // 默认棋盘上格子的数组下标
+    private static int indexOf(int cell) {
+        return Cell.row(cell) * Simulation.COLS + Cell.col(cell);
+    }
+
+    private static boolean inBounds(int cell, int size) {
+        int col = Cell.col(cell);
+        int row = Cell.row(cell);
+        return col >= 0 && col < size && row >= 0 && row < size;
+    }
+
+    private static int[] randomCells(int cols, int rows, Random rand) {
+        int[] cells = new int[QUERY_MASK + 1];
+        for (int n = 0; n < cells.length; n++) {
+            cells[n] = Cell.of(rand.nextInt(cols), rand.nextInt(rows));
+        }
+        return cells;
+    }
+
+    // 在 size x size 的棋盘上随机取一个不在 grid 中的格子
+    static int randomFreeCell(OccupancyGrid grid, int size, Random rand) {
+        while (true) {
+            int cell = Cell.of(rand.nextInt(size), rand.nextInt(size));
+            if (!grid.contains(cell)) return cell;
+        }
+    }
+}
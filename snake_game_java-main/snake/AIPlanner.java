@@ -0,0 +1,161 @@
+package snake;
+
+import java.util.function.IntPredicate;
+
+/**
+ * AI蛇的寻路规划器
+ *
+ * 每次决策先从蛇头做一次广度优先搜索，找到通往目标(苹果)的最短路径的第一步；
+ * 再对这一步做洪水填充安全检查：走过去之后能到达的空闲格子数必须不少于蛇的长度，
+ * 否则说明会钻进比自己还小的死胡同，改为选择可到达区域最大的那个方向。
+ * 搜索使用的队列、访问标记等全部是预先分配的基本类型数组，访问标记通过递增的轮次号
+ * 失效而不是每次清零，所以一次决策不分配任何内存，耗时只与可到达的格子数成正比。
+ */
+public class AIPlanner implements AIStrategy {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int cols;  // 列数
+    private final int rows;  // 行数
+    private final int[] queue;  // 搜索队列(数组下标)
+    private final int[] seen;  // 每格最后一次被访问时的轮次号
+    private final byte[] firstStep;  // 广度优先搜索中到达每格的第一步方向序号
+    private int epoch = 0;  // 当前搜索轮次号
+
+    /**
+     * 按游戏区域的默认尺寸创建规划器
+     */
+    public AIPlanner() {
+        this(Simulation.COLS, Simulation.ROWS);
+    }
+
+    /**
+     * @param cols 列数
+     * @param rows 行数
+     */
+    public AIPlanner(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        int size = cols * rows;
+        this.queue = new int[size];
+        this.seen = new int[size];
+        this.firstStep = new byte[size];
+    }
+
+    /**
+     * 决定下一步的移动方向
+     * @param head 蛇头格子
+     * @param length 蛇的总节数(含蛇头)
+     * @param current 当前移动方向，没有任何可走的格子时原样返回
+     * @param target 目标格子，没有目标时为 Cell.NONE(此时只求安全)
+     * @param blocked 判断格子是否被占用(蛇身、障碍物等)，游戏区域外由规划器自己判断
+     * @return 下一步的方向
+     */
+    @Override
+    public Direction decide(int head, int length, Direction current, int target, IntPredicate blocked) {
+        // 1. 广度优先搜索通往目标的最短路径，取第一步
+        int toward = target != Cell.NONE ? firstStepToward(head, target, blocked) : -1;
+        if (toward >= 0 && floodFill(Cell.step(head, DIRECTIONS[toward]), length, blocked) >= length) {
+            return DIRECTIONS[toward];
+        }
+
+        // 2. 没有安全的最短路径：选择可到达区域最大的方向，区域相同时优先朝目标前进
+        int bestDir = -1;
+        int bestArea = 0;
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int next = Cell.step(head, DIRECTIONS[d]);
+            if (!isOpen(next, blocked)) continue;
+            int area = floodFill(next, length, blocked);
+            if (area > bestArea || (area == bestArea && d == toward)) {
+                bestArea = area;
+                bestDir = d;
+            }
+        }
+        return bestDir >= 0 ? DIRECTIONS[bestDir] : current;
+    }
+
+    /**
+     * 从蛇头广度优先搜索到目标
+     * @return 最短路径第一步的方向序号，到达不了时返回-1
+     */
+    private int firstStepToward(int head, int target, IntPredicate blocked) {
+        int stamp = ++epoch;
+        int targetIndex = indexOf(target);
+        if (targetIndex < 0) return -1;
+        int qHead = 0;
+        int qTail = 0;
+
+        // 蛇头的邻格作为起点，记录各自的方向
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int next = Cell.step(head, DIRECTIONS[d]);
+            if (!isOpen(next, blocked)) continue;
+            int i = indexOf(next);
+            if (seen[i] == stamp) continue;
+            if (i == targetIndex) return d;
+            seen[i] = stamp;
+            firstStep[i] = (byte) d;
+            queue[qTail++] = i;
+        }
+
+        while (qHead < qTail) {
+            int i = queue[qHead++];
+            int cell = Cell.of(i % cols, i / cols);
+            for (Direction dir : DIRECTIONS) {
+                int next = Cell.step(cell, dir);
+                if (!isOpen(next, blocked)) continue;
+                int j = indexOf(next);
+                if (seen[j] == stamp) continue;
+                if (j == targetIndex) return firstStep[i];
+                seen[j] = stamp;
+                firstStep[j] = firstStep[i];
+                queue[qTail++] = j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 洪水填充统计从某格出发能到达的空闲格子数
+     * 数到limit个就提前结束，因为只需要知道区域是否容得下蛇
+     * @param start 起点格子
+     * @param limit 统计上限
+     * @return 可到达的格子数(含起点)，起点不可走时为0
+     */
+    private int floodFill(int start, int limit, IntPredicate blocked) {
+        if (!isOpen(start, blocked)) return 0;
+        int stamp = ++epoch;
+        int qHead = 0;
+        int qTail = 0;
+        int s = indexOf(start);
+        seen[s] = stamp;
+        queue[qTail++] = s;
+        while (qHead < qTail && qTail < limit) {
+            int i = queue[qHead++];
+            int cell = Cell.of(i % cols, i / cols);
+            for (Direction dir : DIRECTIONS) {
+                int next = Cell.step(cell, dir);
+                if (!isOpen(next, blocked)) continue;
+                int j = indexOf(next);
+                if (seen[j] == stamp) continue;
+                seen[j] = stamp;
+                queue[qTail++] = j;
+            }
+        }
+        return qTail;
+    }
+
+    // 格子在游戏区域内且没有被占用
+    private boolean isOpen(int cell, IntPredicate blocked) {
+        return indexOf(cell) >= 0 && !blocked.test(cell);
+    }
+
+    /**
+     * 将格子坐标换算为数组下标
+     * @return 数组下标，超出游戏区域时返回-1
+     */
+    private int indexOf(int cell) {
+        int col = Cell.col(cell);
+        int row = Cell.row(cell);
+        if (col < 0 || col >= cols || row < 0 || row >= rows) return -1;
+        return row * cols + col;
+    }
+}
@@ -0,0 +1,32 @@
+package snake;
+
+import java.util.function.IntPredicate;
+
+/**
+ * AI蛇的决策策略：根据当前局面决定下一步的移动方向
+ * 策略对象可以持有可复用的缓冲区，因此同一个对象不能被多个线程同时使用
+ */
+public interface AIStrategy {
+    /**
+     * 决定下一步的移动方向
+     * @param head 蛇头格子
+     * @param length 蛇的总节数(含蛇头)
+     * @param current 当前移动方向
+     * @param target 目标格子，没有目标时为 Cell.NONE
+     * @param blocked 判断格子是否被占用(蛇身、障碍物等)
+     * @return 下一步的方向
+     */
+    Direction decide(int head, int length, Direction current, int target, IntPredicate blocked);
+
+    /**
+     * 按名称创建策略
+     * @param name "greedy"(贪心直奔目标) 或 "planner"(寻路规划)
+     */
+    static AIStrategy create(String name) {
+        switch (name) {
+            case "greedy": return new GreedyStrategy();
+            case "planner": return new AIPlanner();
+            default: throw new IllegalArgumentException("未知的AI策略: " + name);
+        }
+    }
+}
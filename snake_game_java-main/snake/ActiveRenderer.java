@@ -0,0 +1,74 @@
+package snake;
+
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.function.Consumer;
+
+/**
+ * 主动渲染画布
+ *
+ * 使用 Canvas + BufferStrategy 双缓冲翻页，由游戏循环线程在每帧结束后直接调用 present()
+ * 绘制并显示一帧，不再经过 repaint() 请求合并和EDT的 paintComponent 回调，
+ * 帧的呈现时机完全由游戏循环决定。绘制逻辑复用 Game 中的渲染方法。
+ */
+public class ActiveRenderer extends Canvas {
+    private static final long serialVersionUID = 1L;
+
+    private final Consumer<Graphics> drawer;  // 绘制一帧的方法
+    private final Color background;  // 每帧先用背景色清屏
+
+    /**
+     * @param drawer 绘制一帧的方法
+     * @param background 背景色
+     */
+    public ActiveRenderer(Consumer<Graphics> drawer, Color background) {
+        this.drawer = drawer;
+        this.background = background;
+        setBackground(background);
+        setFocusable(true);
+    }
+
+    /**
+     * 绘制并翻页显示一帧，可以在任意线程调用
+     * 画布尚未显示时直接忽略
+     */
+    public synchronized void present() {
+        if (!isDisplayable() || getWidth() <= 0 || getHeight() <= 0) return;
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null) {
+            createBufferStrategy(2);  // 双缓冲翻页
+            strategy = getBufferStrategy();
+        }
+
+        // 后备缓冲区内容可能丢失(如显存被回收)，需要重绘直到成功
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    g.setColor(background);
+                    g.fillRect(0, 0, getWidth(), getHeight());
+                    drawer.accept(g);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    // 系统要求重绘(如窗口被遮挡后恢复)时也走主动渲染路径
+    @Override
+    public void paint(Graphics g) {
+        present();
+    }
+
+    // 不需要AWT默认的先清屏再paint
+    @Override
+    public void update(Graphics g) {
+        present();
+    }
+}
@@ -0,0 +1,124 @@
+package snake;
+
+import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 图片和音效资源管理器(进程内唯一)
+ *
+ * 资源按文件名查找：先在类路径根目录中找，找不到再到资源目录中找
+ * (默认 snake_game_java-main，可用 -Dsnake.assets=目录 指定)，不再依赖写死的相对路径。
+ * 每个资源只加载一次，在后台线程池中并行解码，调用方立即得到一个 CompletableFuture，
+ * 可以先绘制没有图片的画面，资源到达后再逐步补上。
+ * 图片解码后转换为与显示设备兼容的格式，绘制时不需要再做像素格式转换；
+ * 音效解码为混音器的输出格式。加载失败时输出提示，Future 的结果为null。
+ */
+public final class AssetManager {
+    private static final AssetManager INSTANCE = new AssetManager(
+            Paths.get(System.getProperty("snake.assets", "snake_game_java-main")));
+
+    private final Path directory;  // 资源目录
+    private final ExecutorService loader;  // 解码线程池
+    private final ConcurrentHashMap<String, CompletableFuture<BufferedImage>> images = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<short[]>> sounds = new ConcurrentHashMap<>();
+
+    private AssetManager(Path directory) {
+        this.directory = directory;
+        int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        this.loader = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "asset-loader");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static AssetManager get() {
+        return INSTANCE;
+    }
+
+    /**
+     * 异步加载图片(同名图片只加载一次)
+     * @param name 文件名，例如 "apple.png"
+     * @return 与显示设备兼容的图片，加载失败时为null
+     */
+    public CompletableFuture<BufferedImage> image(String name) {
+        return images.computeIfAbsent(name, n -> CompletableFuture.supplyAsync(() -> {
+            ImageIO.setUseCache(false);  // 直接从流中解码，不写临时缓存文件(在加载线程中初始化 ImageIO)
+            try (InputStream in = open(n)) {
+                BufferedImage raw = ImageIO.read(in);
+                if (raw == null) throw new IOException("不支持的图片格式");
+                return toCompatible(raw);
+            } catch (IOException e) {
+                System.out.println("图片加载失败: " + n + " (" + e.getMessage() + ")");
+                return null;
+            }
+        }, loader));
+    }
+
+    /**
+     * 异步加载并解码音效(同名音效只加载一次)
+     * @param name 文件名，例如 "eat.wav"
+     * @return 混音器输出格式的交错立体声样本，加载失败时为null
+     */
+    public CompletableFuture<short[]> sound(String name) {
+        return sounds.computeIfAbsent(name, n -> CompletableFuture.supplyAsync(() -> {
+            try (AudioInputStream in = AudioSystem.getAudioInputStream(open(n))) {
+                return AudioMixer.decode(in);
+            } catch (Exception e) {
+                System.out.println("音频加载失败: " + n + " (" + e.getMessage() + ")");
+                return null;
+            }
+        }, loader));
+    }
+
+    /**
+     * 打开资源(先类路径后资源目录)，调用方负责关闭
+     * 返回的流支持 mark/reset，可以直接交给 AudioSystem
+     */
+    public InputStream open(String name) throws IOException {
+        InputStream in = AssetManager.class.getResourceAsStream("/" + name);
+        if (in == null) {
+            Path file = directory.resolve(name);
+            if (!Files.isRegularFile(file)) throw new FileNotFoundException(file.toString());
+            in = Files.newInputStream(file);
+        }
+        return new BufferedInputStream(in);
+    }
+
+    // 转换为与默认显示设备兼容的图片(无显示设备时使用预乘透明度的整型格式)
+    private static BufferedImage toCompatible(BufferedImage src) {
+        BufferedImage dst;
+        if (GraphicsEnvironment.isHeadless()) {
+            if (src.getType() == BufferedImage.TYPE_INT_ARGB_PRE) return src;
+            dst = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        } else {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            if (src.getColorModel().equals(gc.getColorModel(src.getTransparency()))) return src;
+            dst = gc.createCompatibleImage(src.getWidth(), src.getHeight(), src.getTransparency());
+        }
+        Graphics2D g = dst.createGraphics();
+        try {
+            g.drawImage(src, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return dst;
+    }
+}
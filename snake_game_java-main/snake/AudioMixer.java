@@ -0,0 +1,237 @@
+package snake;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 多声部音效混音器
+ *
+ * 音效由 AssetManager 在后台一次性解码为统一格式(44.1kHz、16位、立体声)的PCM样本，
+ * 专门的混音线程把所有正在播放的声部叠加后写入同一条 SourceDataLine。
+ * 触发音效只是给该音效的计数器加一，不加锁、不分配内存，游戏循环线程从不等待音频；
+ * 混音线程每处理一小段(约12毫秒)取走计数并开始相应数量的新声部，
+ * 所以同一音效连续触发时会重叠播放，不会互相打断。
+ * 背景音乐(MusicStream)也在这里与音效叠加，整个游戏只占用一条输出线路。
+ * 没有可用的音频设备时混音线程直接退出，之后的触发全部忽略。
+ */
+public class AudioMixer {
+    static final float SAMPLE_RATE = 44100f;  // 输出采样率
+    static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);  // 输出格式
+    private static final int FRAME_BYTES = 4;  // 每帧字节数(2声道 × 16位)
+    private static final int CHUNK_FRAMES = 512;  // 每次混音的帧数
+    private static final int LINE_CHUNKS = 4;  // 输出线路缓冲可容纳的段数(决定延迟)
+    static final int MAX_VOICES = 32;  // 同时播放的最多声部数
+
+    // 一个预先解码的音效
+    public static final class Sound {
+        volatile short[] pcm;  // 交错的立体声样本，解码完成前(或加载失败时)为null
+        final AtomicInteger pending = new AtomicInteger();  // 尚未开始播放的触发次数
+    }
+
+    private volatile Sound[] sounds = new Sound[0];  // 已加载的音效(混音线程按此检查触发)
+    private volatile MusicStream music;  // 背景音乐，为null时没有
+
+    // 以下只由混音线程访问
+    private final Sound[] voiceSound = new Sound[MAX_VOICES];  // 各声部播放的音效
+    private final int[] voicePos = new int[MAX_VOICES];  // 各声部的播放位置(帧)
+    private int voiceCount = 0;  // 正在播放的声部数
+    private final int[] mixBuffer = new int[CHUNK_FRAMES * 2];  // 叠加用的累加缓冲
+    private final byte[] output = new byte[CHUNK_FRAMES * FRAME_BYTES];  // 写入线路的数据
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    /**
+     * 注册音效并交给 AssetManager 在后台解码(立即返回)
+     * 解码完成前以及加载失败时，该音效的触发被忽略
+     * @param name 资源文件名，例如 "eat.wav"
+     */
+    public synchronized Sound load(String name) {
+        Sound sound = new Sound();
+        Sound[] next = Arrays.copyOf(sounds, sounds.length + 1);
+        next[sounds.length] = sound;
+        sounds = next;
+        AssetManager.get().sound(name).thenAccept(pcm -> sound.pcm = pcm);
+        return sound;
+    }
+
+    // 设置与音效一起混音的背景音乐
+    public void setMusic(MusicStream music) {
+        this.music = music;
+    }
+
+    // 启动混音线程
+    public synchronized void start() {
+        if (thread != null) return;
+        running = true;
+        thread = new Thread(this::run, "audio-mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    // 停止混音线程并关闭输出线路
+    public void close() {
+        running = false;
+        Thread t;
+        synchronized (this) {
+            t = thread;
+        }
+        if (t == null) return;
+        try {
+            t.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 触发一次音效(可在任意线程调用，立即返回)
+     * @param sound 要播放的音效，为null时忽略
+     */
+    public void play(Sound sound) {
+        if (sound != null && running) {
+            sound.pending.incrementAndGet();
+        }
+    }
+
+    // 混音线程：打开线路后不断混音写入，写满时 write 阻塞，由此按播放速度推进
+    private void run() {
+        try (SourceDataLine line = AudioSystem.getSourceDataLine(FORMAT)) {
+            line.open(FORMAT, CHUNK_FRAMES * FRAME_BYTES * LINE_CHUNKS);
+            line.start();
+            while (running) {
+                mix(output, CHUNK_FRAMES);
+                line.write(output, 0, output.length);
+            }
+            line.stop();
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.out.println("无法打开音频设备，音效已关闭: " + e.getMessage());
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * 开始新触发的声部，把背景音乐和所有声部的下一段叠加成16位小端PCM
+     * 只由混音线程调用(不打开线路时也可以直接调用来检查混音结果)
+     * @param dst 输出缓冲，至少 frames × 4 字节
+     * @param frames 帧数，不超过 CHUNK_FRAMES
+     * @return 混音后仍在播放的声部数
+     */
+    int mix(byte[] dst, int frames) {
+        for (Sound s : sounds) {
+            if (s.pending.get() == 0) continue;
+            int n = s.pending.getAndSet(0);
+            if (s.pcm == null) continue;
+            for (; n > 0; n--) {
+                startVoice(s);
+            }
+        }
+
+        int samples = frames * 2;
+        Arrays.fill(mixBuffer, 0, samples, 0);
+        MusicStream m = music;
+        if (m != null) m.mixInto(mixBuffer, frames);
+        for (int v = 0; v < voiceCount; ) {
+            short[] pcm = voiceSound[v].pcm;
+            int total = pcm.length / 2;
+            int pos = voicePos[v];
+            int n = Math.min(frames, total - pos) * 2;
+            int src = pos * 2;
+            for (int i = 0; i < n; i++) {
+                mixBuffer[i] += pcm[src + i];
+            }
+            pos += n / 2;
+            if (pos >= total) {
+                // 播放完毕，用最后一个声部填补空位
+                voiceCount--;
+                voiceSound[v] = voiceSound[voiceCount];
+                voicePos[v] = voicePos[voiceCount];
+                voiceSound[voiceCount] = null;
+            } else {
+                voicePos[v] = pos;
+                v++;
+            }
+        }
+
+        for (int i = 0, b = 0; i < samples; i++, b += 2) {
+            int x = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mixBuffer[i]));
+            dst[b] = (byte) x;
+            dst[b + 1] = (byte) (x >> 8);
+        }
+        return voiceCount;
+    }
+
+    // 开始一个新声部，声部已满时替换播放得最久的一个
+    private void startVoice(Sound s) {
+        int v = voiceCount;
+        if (v == MAX_VOICES) {
+            v = 0;
+            for (int i = 1; i < MAX_VOICES; i++) {
+                if (voicePos[i] > voicePos[v]) v = i;
+            }
+        } else {
+            voiceCount++;
+        }
+        voiceSound[v] = s;
+        voicePos[v] = 0;
+    }
+
+    /**
+     * 把任意PCM格式的音频流解码为输出格式的交错立体声样本
+     * 单声道复制到两个声道，采样率不同时线性插值重采样
+     */
+    static short[] decode(AudioInputStream in) throws IOException {
+        AudioFormat src = in.getFormat();
+        int channels = src.getChannels();
+        AudioFormat pcm = new AudioFormat(src.getSampleRate(), 16, channels, true, false);
+        byte[] bytes;
+        try (AudioInputStream converted = AudioSystem.getAudioInputStream(pcm, in)) {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream();
+            byte[] chunk = new byte[16 * 1024];
+            int n;
+            while ((n = converted.read(chunk)) > 0) {
+                buf.write(chunk, 0, n);
+            }
+            bytes = buf.toByteArray();
+        }
+
+        int frameBytes = 2 * channels;
+        int frames = bytes.length / frameBytes;
+        short[] stereo = new short[frames * 2];
+        for (int f = 0; f < frames; f++) {
+            int p = f * frameBytes;
+            short left = (short) ((bytes[p] & 0xFF) | (bytes[p + 1] << 8));
+            short right = channels > 1 ? (short) ((bytes[p + 2] & 0xFF) | (bytes[p + 3] << 8)) : left;
+            stereo[2 * f] = left;
+            stereo[2 * f + 1] = right;
+        }
+        return src.getSampleRate() == SAMPLE_RATE ? stereo : resample(stereo, src.getSampleRate());
+    }
+
+    // 线性插值重采样到输出采样率
+    private static short[] resample(short[] stereo, float rate) {
+        int frames = stereo.length / 2;
+        if (frames == 0) return stereo;
+        double step = rate / SAMPLE_RATE;
+        int outFrames = (int) ((frames - 1) / step) + 1;
+        short[] out = new short[outFrames * 2];
+        for (int f = 0; f < outFrames; f++) {
+            double x = f * step;
+            int i = (int) x;
+            double t = x - i;
+            int j = Math.min(i + 1, frames - 1);
+            out[2 * f] = (short) Math.round(stereo[2 * i] + (stereo[2 * j] - stereo[2 * i]) * t);
+            out[2 * f + 1] = (short) Math.round(stereo[2 * i + 1] + (stereo[2 * j + 1] - stereo[2 * i + 1]) * t);
+        }
+        return out;
+    }
+}
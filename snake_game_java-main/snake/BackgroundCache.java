@@ -0,0 +1,196 @@
+package snake;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+
+/**
+ * 静态背景图层缓存
+ *
+ * 菜单界面(背景图、半透明蒙版、标题、模式按钮)和游戏区域(网格线、边界)每帧都不会变化，
+ * 这里第一次使用时把它们各自预先绘制到一张与显示设备兼容的不透明图片中，
+ * 之后每帧只需整张贴图一次，再在上面绘制蛇、道具等动态内容。
+ * 缓存按尺寸和显示设备配置生成，两者变化或菜单背景图更换时自动重建。
+ */
+public class BackgroundCache {
+    // 菜单界面样式
+    private static final Color MASK_COLOR = new Color(0, 0, 0, 120);  // 半透明黑色蒙版
+    private static final Color SHADOW_COLOR = new Color(0, 0, 0, 180);  // 标题阴影
+    private static final Color TITLE_COLOR = new Color(53, 220, 8);  // 标题正文
+    private static final Color BUTTON_FILL = new Color(30, 30, 30, 180);  // 按钮底色
+    private static final Color BUTTON_OUTLINE = new Color(53, 220, 8, 180);  // 按钮描边
+    private static final BasicStroke BUTTON_STROKE = new BasicStroke(3);
+    private static final String TITLE = "蛇皇争锋：智控风暴";
+    private static final String[] OPTIONS = {"按1：单人模式", "按2：AI对战模式", "按3：持续加速模式", "按4：无尽障碍模式", "按5：竞技场模式", "按Q退出游戏"};
+
+    // 游戏区域样式
+    private static final Color GRID_COLOR = new Color(200, 200, 200, 80);  // 浅灰色半透明网格线
+    private static final Color BORDER_COLOR = new Color(71, 128, 0);  // 边界颜色
+    private static final BasicStroke BORDER_STROKE = new BasicStroke(4);
+
+    private final Font titleFont;  // 标题字体
+    private final Font optionFont;  // 按钮字体
+    private final Color background;  // 底色
+    private Image menuSource;  // 菜单背景原图，可以为null
+
+    private GraphicsConfiguration config;  // 缓存所对应的显示设备配置
+    private int width;  // 缓存图片宽度
+    private int height;  // 缓存图片高度
+    private BufferedImage menu;  // 菜单界面图层
+    private BufferedImage playfield;  // 游戏区域图层
+
+    /**
+     * @param titleFont 标题字体
+     * @param optionFont 模式按钮字体
+     * @param background 底色(菜单背景图缺失时以及游戏区域的底色)
+     */
+    public BackgroundCache(Font titleFont, Font optionFont, Color background) {
+        this.titleFont = titleFont;
+        this.optionFont = optionFont;
+        this.background = background;
+    }
+
+    // 更换菜单背景原图(例如加载完成后)，下次使用时重建
+    public synchronized void setMenuSource(Image image) {
+        this.menuSource = image;
+        this.menu = null;
+    }
+
+    // 丢弃所有缓存图层，下次使用时重建
+    public synchronized void invalidate() {
+        menu = null;
+        playfield = null;
+    }
+
+    /**
+     * 获取菜单界面图层
+     * @param gc 目标显示设备配置
+     * @param width 宽度
+     * @param height 高度
+     */
+    public synchronized Image getMenu(GraphicsConfiguration gc, int width, int height) {
+        checkTarget(gc, width, height);
+        if (menu == null) {
+            menu = create();
+            Graphics2D g = menu.createGraphics();
+            try {
+                drawMenu(g);
+            } finally {
+                g.dispose();
+            }
+        }
+        return menu;
+    }
+
+    /**
+     * 获取游戏区域图层
+     * @param gc 目标显示设备配置
+     * @param width 宽度
+     * @param height 高度
+     */
+    public synchronized Image getPlayfield(GraphicsConfiguration gc, int width, int height) {
+        checkTarget(gc, width, height);
+        if (playfield == null) {
+            playfield = create();
+            Graphics2D g = playfield.createGraphics();
+            try {
+                drawPlayfield(g);
+            } finally {
+                g.dispose();
+            }
+        }
+        return playfield;
+    }
+
+    // 尺寸或显示设备变化时丢弃旧缓存
+    private void checkTarget(GraphicsConfiguration gc, int width, int height) {
+        if (gc != config || width != this.width || height != this.height) {
+            config = gc;
+            this.width = width;
+            this.height = height;
+            invalidate();
+        }
+    }
+
+    // 创建与显示设备兼容的不透明图片，贴图时无需格式转换和混合
+    private BufferedImage create() {
+        if (config != null) {
+            return config.createCompatibleImage(width, height);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    // 绘制菜单界面：背景图、蒙版、标题和模式按钮
+    private void drawMenu(Graphics2D g) {
+        // 1. 背景图(只在这里缩放一次)
+        if (menuSource != null) {
+            g.setColor(background);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(menuSource, 0, 0, width, height, null);
+        } else {
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, width, height);
+        }
+
+        // 2. 半透明黑色蒙版
+        g.setColor(MASK_COLOR);
+        g.fillRoundRect(100, 80, width - 200, height - 200, 40, 40);
+
+        // 3. 标题：阴影、描边、正文
+        g.setFont(titleFont);
+        int titleX = (width - g.getFontMetrics().stringWidth(TITLE)) / 2;
+        int titleY = 200;
+        g.setColor(SHADOW_COLOR);
+        g.drawString(TITLE, titleX + 4, titleY + 6);
+        g.setColor(Color.WHITE);
+        g.drawString(TITLE, titleX - 2, titleY - 2);
+        g.setColor(TITLE_COLOR);
+        g.drawString(TITLE, titleX, titleY);
+
+        // 4. 模式选择按钮
+        g.setFont(optionFont);
+        g.setStroke(BUTTON_STROKE);
+        int optY = 320;
+        int optGap = 60;
+        for (String option : OPTIONS) {
+            int optW = g.getFontMetrics().stringWidth(option);
+            int optX = (width - optW) / 2;
+
+            g.setColor(BUTTON_FILL);
+            g.fillRoundRect(optX - 30, optY - 38, optW + 60, 50, 30, 30);
+            g.setColor(BUTTON_OUTLINE);
+            g.drawRoundRect(optX - 30, optY - 38, optW + 60, 50, 30, 30);
+            g.setColor(Color.WHITE);
+            g.drawString(option, optX, optY);
+            optY += optGap;
+        }
+    }
+
+    // 绘制游戏区域：网格线和边界
+    private void drawPlayfield(Graphics2D g) {
+        g.setColor(background);
+        g.fillRect(0, 0, width, height);
+
+        int left = Simulation.OFFSET_X;
+        int top = Simulation.OFFSET_Y;
+        int right = left + Simulation.WIDTH;
+        int bottom = top + Simulation.HEIGHT;
+        int gridSize = Simulation.GRID_SIZE;
+
+        g.setColor(GRID_COLOR);
+        for (int x = left; x <= right; x += gridSize) {
+            g.drawLine(x, top, x, bottom);
+        }
+        for (int y = top; y <= bottom; y += gridSize) {
+            g.drawLine(left, y, right, y);
+        }
+
+        g.setColor(BORDER_COLOR);
+        g.setStroke(BORDER_STROKE);
+        g.drawRect(left, top, Simulation.WIDTH, Simulation.HEIGHT);
+    }
+}
@@ -0,0 +1,72 @@
+package snake;
+
+/**
+ * 网格坐标工具类
+ *
+ * 模拟中的所有位置都用一个int表示：高16位为列号，低16位为行号(均为有符号)。
+ * 比较两个位置只需一次整数比较，也不需要为临时坐标分配对象。
+ * 只有绘制时才通过 toPixelX/toPixelY 换算为屏幕像素。
+ */
+public final class Cell {
+    // 表示"没有位置"(例如道具尚未生成)
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private Cell() {}
+
+    /**
+     * 打包列号和行号
+     * @param col 列号(可以为负，表示游戏区域外)
+     * @param row 行号(可以为负，表示游戏区域外)
+     */
+    public static int of(int col, int row) {
+        return (col << 16) | (row & 0xFFFF);
+    }
+
+    // 取出列号
+    public static int col(int cell) {
+        return cell >> 16;
+    }
+
+    // 取出行号
+    public static int row(int cell) {
+        return (short) cell;
+    }
+
+    /**
+     * 沿指定方向移动一格
+     * @param cell 起始位置
+     * @param d 移动方向
+     * @return 相邻格子
+     */
+    public static int step(int cell, Direction d) {
+        switch (d) {
+            case UP: return of(col(cell), row(cell) - 1);
+            case DOWN: return of(col(cell), row(cell) + 1);
+            case LEFT: return of(col(cell) - 1, row(cell));
+            case RIGHT: return of(col(cell) + 1, row(cell));
+            default: return cell;
+        }
+    }
+
+    // 判断是否在游戏区域内
+    public static boolean inBounds(int cell) {
+        int col = col(cell);
+        int row = row(cell);
+        return col >= 0 && col < Simulation.COLS && row >= 0 && row < Simulation.ROWS;
+    }
+
+    // 换算为格子左上角的屏幕x坐标(仅绘制时使用)
+    public static int toPixelX(int cell) {
+        return Simulation.OFFSET_X + col(cell) * Simulation.GRID_SIZE;
+    }
+
+    // 换算为格子左上角的屏幕y坐标(仅绘制时使用)
+    public static int toPixelY(int cell) {
+        return Simulation.OFFSET_Y + row(cell) * Simulation.GRID_SIZE;
+    }
+
+    // 格式化为"(列, 行)"，便于调试
+    public static String toString(int cell) {
+        return cell == NONE ? "NONE" : "(" + col(cell) + ", " + row(cell) + ")";
+    }
+}
@@ -1,3 +1,5 @@
+package snake;
+
 /**
  * 方向枚举，表示物体（如贪吃蛇）可能的移动方向
  */
@@ -0,0 +1,202 @@
+package snake;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 固定步长的游戏循环调度器
+ *
+ * 整个程序只使用一个长期存活的线程，按 System.nanoTime() 累加经过的时间，
+ * 每攒够一个步长就执行一次回调。步长可以在运行中随时修改，暂停/恢复也不会创建新线程。
+ * 等待时先 sleep 到接近目标时间，最后不到1毫秒改为自旋，保证15ms以下的步长也足够精确。
+ * 同时按步长分别统计实际帧间隔相对目标步长的抖动(加速模式的每一级、死亡动画各有一份)，
+ * 改步长不会丢掉之前的统计，便于观察各种步长下的调度精度。
+ */
+public class FixedStepLoop {
+    // 落后太多时一次最多补的步数，避免卡顿后连续狂跑
+    private static final int MAX_CATCH_UP = 5;
+    // 距离目标时间小于该值时改为自旋等待
+    private static final long SPIN_THRESHOLD = TimeUnit.MICROSECONDS.toNanos(1500);
+
+    private final Runnable step;  // 每步执行的回调
+    private final Thread thread;  // 循环线程
+    private volatile long periodNanos;  // 当前步长(纳秒)
+    private volatile boolean paused = true;  // 是否暂停
+    private volatile boolean running = true;  // 是否继续运行
+    private volatile boolean restart = true;  // 恢复或改步长后需要重新计时
+    // 各步长(纳秒)的抖动统计，按步长从小到大排列
+    private final ConcurrentSkipListMap<Long, TickStats> stats = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param name 线程名
+     * @param step 每步执行的回调(在循环线程中调用)
+     * @param periodMillis 初始步长(毫秒)
+     */
+    public FixedStepLoop(String name, Runnable step, int periodMillis) {
+        this.step = step;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+    }
+
+    // 启动循环线程(初始为暂停状态)
+    public void start() {
+        thread.start();
+    }
+
+    // 结束循环线程
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    // 暂停，不再执行回调
+    public void pause() {
+        paused = true;
+    }
+
+    // 恢复执行，第一步立即执行
+    public void resume() {
+        restart = true;
+        paused = false;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * 修改步长，下一步起生效，不会创建新线程
+     * @param periodMillis 新的步长(毫秒)
+     */
+    public void setPeriod(int periodMillis) {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(periodMillis);
+        periodNanos = nanos;
+    }
+
+    // 当前步长(毫秒)
+    public int getPeriod() {
+        return (int) TimeUnit.NANOSECONDS.toMillis(periodNanos);
+    }
+
+    // 各步长(纳秒)的帧间隔抖动统计(只读视图)
+    public SortedMap<Long, TickStats> getStats() {
+        return Collections.unmodifiableSortedMap(stats);
+    }
+
+    // 清空所有步长的抖动统计(例如新的一局开始时)
+    public void resetStats() {
+        for (TickStats s : stats.values()) {
+            s.reset();
+        }
+    }
+
+    // 各步长的抖动统计，每个步长一行
+    public String getStatsReport() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Long, TickStats> e : stats.entrySet()) {
+            if (e.getValue().getCount() == 0) continue;
+            sb.append(String.format("%n  步长 %.1fms  ", e.getKey() / 1e6)).append(e.getValue());
+        }
+        return sb.length() > 0 ? sb.toString() : " (无数据)";
+    }
+
+    // 循环线程主体
+    private void run() {
+        long last = 0;  // 上次计时的时间点
+        long accumulator = 0;  // 尚未消耗的时间
+        long lastStep = 0;  // 上一步实际执行的时间点
+        long statsPeriod = 0;  // current 所对应的步长
+        TickStats current = null;  // 当前步长的统计(只在步长变化时查表)
+        while (running) {
+            if (paused) {
+                LockSupport.park(this);
+                continue;
+            }
+            long period = periodNanos;
+            if (period != statsPeriod) {
+                // 步长变化：换到该步长的统计，跨越变化的那次间隔不计入
+                statsPeriod = period;
+                current = stats.computeIfAbsent(period, k -> new TickStats());
+                lastStep = 0;
+            }
+            long now = System.nanoTime();
+            if (restart) {
+                // 刚恢复：清空累计时间，让第一步立即执行
+                restart = false;
+                last = now;
+                accumulator = period;
+                lastStep = 0;
+            }
+            accumulator += now - last;
+            last = now;
+
+            int steps = 0;
+            while (accumulator >= period && steps < MAX_CATCH_UP && !paused) {
+                if (lastStep != 0) current.record(now - lastStep, period);
+                lastStep = now;
+                step.run();
+                accumulator -= period;
+                steps++;
+            }
+            if (steps == MAX_CATCH_UP && accumulator >= period) {
+                // 严重落后，丢弃多余时间
+                accumulator = 0;
+            }
+
+            // 等待到下一步
+            long remaining = periodNanos - accumulator - (System.nanoTime() - last);
+            if (remaining > SPIN_THRESHOLD) {
+                LockSupport.parkNanos(this, remaining - SPIN_THRESHOLD);
+            } else if (remaining > 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * 帧间隔抖动统计(Welford在线算法)，单位纳秒
+     */
+    public static class TickStats {
+        private long count;  // 统计的帧数
+        private double mean;  // 平均抖动
+        private double m2;  // 抖动平方差累计
+        private long max;  // 最大抖动
+
+        // 记录一次实际帧间隔
+        synchronized void record(long interval, long period) {
+            long jitter = Math.abs(interval - period);
+            count++;
+            double delta = jitter - mean;
+            mean += delta / count;
+            m2 += delta * (jitter - mean);
+            if (jitter > max) max = jitter;
+        }
+
+        // 清空统计
+        synchronized void reset() {
+            count = 0;
+            mean = 0;
+            m2 = 0;
+            max = 0;
+        }
+
+        public synchronized long getCount() { return count; }
+
+        // 平均抖动(毫秒)
+        public synchronized double getMeanMillis() { return mean / 1e6; }
+
+        // 抖动标准差(毫秒)
+        public synchronized double getStdDevMillis() { return count > 1 ? Math.sqrt(m2 / (count - 1)) / 1e6 : 0; }
+
+        // 最大抖动(毫秒)
+        public synchronized double getMaxMillis() { return max / 1e6; }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("帧数: %d  平均抖动: %.3fms  标准差: %.3fms  最大抖动: %.3fms",
+                    count, getMeanMillis(), getStdDevMillis(), getMaxMillis());
+        }
+    }
+}
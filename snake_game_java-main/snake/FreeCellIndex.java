@@ -0,0 +1,144 @@
+package snake;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * 空闲格子索引
+ *
+ * 记录整个棋盘上每格被占用的次数(蛇、障碍物、道具都会占用)，
+ * 并把所有空闲格子维护在一个紧凑数组中：格子被占用时与数组末尾交换后删除，
+ * 被释放时追加到末尾。这样可以在O(1)时间内均匀随机地取出一个空格子，
+ * 棋盘放满时直接返回 Cell.NONE，而不是反复随机重试。
+ */
+public class FreeCellIndex {
+    private final int cols;  // 列数
+    private final int rows;  // 行数
+    private final short[] counts;  // 每格占用次数
+    private final int[] free;  // 空闲格子的数组下标(前freeCount个有效)
+    private final int[] position;  // 每格在free中的位置，被占用时为-1
+    private int freeCount;  // 空闲格子数
+
+    /**
+     * 按游戏区域的默认尺寸创建索引
+     */
+    public FreeCellIndex() {
+        this(Simulation.COLS, Simulation.ROWS);
+    }
+
+    /**
+     * @param cols 列数
+     * @param rows 行数
+     */
+    public FreeCellIndex(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        int size = cols * rows;
+        this.counts = new short[size];
+        this.free = new int[size];
+        this.position = new int[size];
+        // 初始时所有格子都空闲
+        for (int i = 0; i < size; i++) {
+            free[i] = i;
+            position[i] = i;
+        }
+        this.freeCount = size;
+    }
+
+    /**
+     * 将格子坐标换算为数组下标
+     * @return 数组下标，超出游戏区域时返回-1
+     */
+    private int indexOf(int cell) {
+        int col = Cell.col(cell);
+        int row = Cell.row(cell);
+        if (col < 0 || col >= cols || row < 0 || row >= rows) return -1;
+        return row * cols + col;
+    }
+
+    // 占用某格一次，第一次占用时从空闲数组中移除
+    public void occupy(int cell) {
+        int i = indexOf(cell);
+        if (i < 0) return;
+        if (counts[i]++ == 0) {
+            // 与末尾交换后删除
+            int pos = position[i];
+            int last = free[--freeCount];
+            free[pos] = last;
+            position[last] = pos;
+            position[i] = -1;
+        }
+    }
+
+    // 释放某格一次，不再被任何物体占用时放回空闲数组
+    public void release(int cell) {
+        int i = indexOf(cell);
+        if (i < 0) return;
+        if (--counts[i] == 0) {
+            free[freeCount] = i;
+            position[i] = freeCount++;
+        }
+    }
+
+    // 获取某格的占用次数(游戏区域外为0)
+    public int count(int cell) {
+        int i = indexOf(cell);
+        return i >= 0 ? counts[i] : 0;
+    }
+
+    // 判断某格是否空闲(游戏区域外视为不空闲)
+    public boolean isFree(int cell) {
+        int i = indexOf(cell);
+        return i >= 0 && counts[i] == 0;
+    }
+
+    /**
+     * 均匀随机取一个空闲格子(不会占用它)
+     * @param rand 随机数生成器
+     * @return 空闲格子，棋盘已满时返回 Cell.NONE
+     */
+    public int randomFree(Random rand) {
+        if (freeCount == 0) return Cell.NONE;
+        int i = free[rand.nextInt(freeCount)];
+        return Cell.of(i % cols, i / cols);
+    }
+
+    // 空闲格子数
+    public int getFreeCount() {
+        return freeCount;
+    }
+
+    // 棋盘是否已满
+    public boolean isFull() {
+        return freeCount == 0;
+    }
+
+    /**
+     * 保存占用计数和空闲数组
+     * 空闲数组的顺序决定了 randomFree 的结果，必须原样保存才能让恢复后的随机选择保持一致
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(freeCount);
+        for (short c : counts) {
+            out.writeShort(c);
+        }
+        for (int i = 0; i < freeCount; i++) {
+            out.writeInt(free[i]);
+        }
+    }
+
+    // 从 writeState 写入的数据恢复(尺寸必须相同)
+    public void readState(DataInput in) throws IOException {
+        freeCount = in.readInt();
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = in.readShort();
+            position[i] = -1;
+        }
+        for (int i = 0; i < freeCount; i++) {
+            free[i] = in.readInt();
+            position[free[i]] = i;
+        }
+    }
+}
@@ -0,0 +1,561 @@
+package snake;
+
+import javax.swing.JPanel;
+import java.util.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.io.*;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+
+public class Game extends JPanel {
+    // 游戏循环调度器(整个程序只有一个循环线程)
+    private final FixedStepLoop loop = new FixedStepLoop("game-loop", new GameLoop(), Simulation.BASE_DELAY);
+    // 游戏模拟核心，持有一局游戏的全部世界状态
+    private Simulation sim;
+    // 最高分
+    private Map<GameMode, Integer> bestMap = new HashMap<>();
+    // 分数文件的后台写入线程(分数文件打开失败时为null，只在内存中记录最高分)
+    private PersistenceWorker scoreWriter;
+    // 全部历史成绩的排行榜统计(由分数写入线程在启动时回放历史记录)
+    private final Leaderboard leaderboard = new Leaderboard();
+    // 本局分数超过了百分之多少的历史对局，没有数据时为-1
+    private int beatPercent = -1;
+    // 游戏状态
+    private volatile GameStatus status;
+    // 渲染快照：游戏循环写入，渲染线程无锁读取
+    private final TripleBuffer<RenderSnapshot> frames = new TripleBuffer<>(RenderSnapshot::new);
+    // 串行化一步模拟和快照发布(只有写者之间互斥，渲染线程不加锁)
+    private final Object stateLock = new Object();
+
+    // 玩家输入：键盘线程写入，下一帧由游戏循环读取
+    private volatile boolean isPlayerAccelerating = false;
+    private final InputQueue turnInputs = new InputQueue();
+
+    // 音效播放器
+    // 背景音乐：后台线程从文件流式读取，经混音器播放
+    private final MusicStream bgm = new MusicStream("bgm.wav");
+    // 音效混音器：音效预先解码，在独立线程中混音播放，触发时不阻塞游戏循环
+    private final AudioMixer mixer = new AudioMixer();
+    private final AudioMixer.Sound eatSound = mixer.load("eat.wav");
+    private final AudioMixer.Sound dieSound = mixer.load("die.wav");
+    // 背景音乐开关
+    private boolean isBgmOn = true;
+
+    // 粒子效果
+    private final ParticleSystem particles = new ParticleSystem();
+    // 粒子效果使用的随机数生成器
+    private final Random effectRand = new Random();
+    // 每局模拟种子的来源
+    private final Random seedSource = new Random();
+    // 本局的录像录制器
+    private ReplayRecorder recorder;
+
+    // 当前游戏循环使用的延迟时间(毫秒)
+    private int scheduledDelay = Simulation.BASE_DELAY;
+    // 死亡动画帧间隔(毫秒)
+    private static final int DEATH_FRAME_DELAY = 15;
+    // 主动渲染画布(-Dsnake.activeRender=true 时启用)，为null时使用Swing的repaint
+    private ActiveRenderer activeRenderer = null;
+    // 是否输出启动耗时和每局结束时的调度抖动统计(-Dsnake.timing=true)
+    private static final boolean PRINT_TIMING = Boolean.getBoolean("snake.timing");
+    // 是否已经绘制过第一帧(只由绘制线程访问)
+    private boolean firstFrameDrawn = false;
+
+    // 画面绘制器
+    private final GameRenderer renderer = new GameRenderer();
+
+    // 死亡动画计时器
+    private int deathAnimFrame = 0;
+    // 死亡动画持续帧数
+    private static final int DEATH_ANIMATION_DURATION = 40; // 约0.7秒
+
+    // 游戏开始时间
+    private long startTime = 0;
+
+    private GameMode currentMode = GameMode.CLASSIC;  // 当前游戏模式
+
+    // 游戏构造函数
+    public Game(boolean withAISnake, boolean isSpeedUpMode, boolean isObstacleMode) {
+        // 先在后台开始加载菜单背景和各种图片：窗口立即显示，图片到达后逐步重绘
+        renderer.loadImages(() -> EventQueue.invokeLater(this::showFrame)).thenRun(() -> {
+            if (PRINT_TIMING) {
+                System.out.println("图片加载完成: 启动后" + ManagementFactory.getRuntimeMXBean().getUptime() + "ms");
+            }
+        });
+
+        // 根据开关确定初始模式
+        if (isObstacleMode) {
+            currentMode = GameMode.OBSTACLE;
+        } else if (isSpeedUpMode) {
+            currentMode = GameMode.SPEEDUP;
+        } else if (withAISnake) {
+            currentMode = GameMode.AI;
+        }
+        addKeyListener(new KeyListener());  // 添加键盘监听
+        setFocusable(true);  // 设置可获取焦点
+        setBackground(Color.black);  // 设置背景色
+        setDoubleBuffered(true);  // 启用双缓冲
+        
+        // 主动渲染模式：画布铺满面板，由游戏循环直接绘制并翻页
+        if (Boolean.getBoolean("snake.activeRender")) {
+            activeRenderer = new ActiveRenderer(this::render, Color.black);
+            activeRenderer.addKeyListener(new KeyListener());
+            setLayout(new BorderLayout());
+            add(activeRenderer, BorderLayout.CENTER);
+        }
+        status = GameStatus.MODE_SELECT;  // 初始状态为模式选择
+        loop.start();  // 启动游戏循环线程(暂停状态)
+        requestFrame();  // 重绘界面
+        mixer.setMusic(bgm);
+        mixer.start();  // 启动混音线程
+        bgm.start();  // 开始在后台读取背景音乐
+        bgm.play();  // 循环播放背景音乐
+        
+        // 初始化各模式最高分
+        for (GameMode mode : GameMode.values()) {
+            bestMap.put(mode, 0);
+        }
+        loadBestScores();  // 加载历史最高分
+    }
+
+    // 保留原有构造函数
+    public Game(boolean withAISnake, boolean isSpeedUpMode) {
+        this(withAISnake, isSpeedUpMode, false);  // 调用主构造函数
+    }
+
+    public Game(boolean withAISnake) {
+        this(withAISnake, false, false);  // 调用主构造函数
+    }
+
+    public Game() {
+        this(false, false, false);  // 调用主构造函数
+    }
+
+    // 主动渲染模式下让画布获得键盘焦点
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (activeRenderer != null) {
+            activeRenderer.requestFocus();
+        }
+    }
+
+    // 发布当前状态的快照并显示新的一帧：主动渲染模式下立即绘制并翻页，否则交给Swing重绘
+    private void requestFrame() {
+        publishFrame();
+        showFrame();
+    }
+
+    // 显示最近发布的快照
+    private void showFrame() {
+        if (activeRenderer != null) {
+            activeRenderer.present();
+        } else {
+            repaint();
+        }
+    }
+
+    // 把当前游戏状态复制到快照并发布给渲染线程
+    private void publishFrame() {
+        synchronized (stateLock) {
+            frames.getWriteBuffer().capture(sim, status, currentMode, bestMap.getOrDefault(currentMode, 0),
+                    startTime, beatPercent, isBgmOn, particles);
+            frames.publish();
+        }
+    }
+
+    // 绘制游戏组件
+    @Override
+    public void paintComponent(Graphics g) {
+        super.paintComponent(g);  // 调用父类绘制方法
+        render(g);  // 调用自定义渲染方法
+        Toolkit.getDefaultToolkit().sync();  // 同步图形状态，确保绘制完成
+    }
+
+    // 更新游戏状态
+    private void update() {
+        // 每步只取一个合法的转向，其余按键留到后续几步
+        Direction turn = turnInputs.pollTurn(sim.getSnake().getDirection());
+        boolean accelerate = isPlayerAccelerating;
+        recorder.record(sim, turn, accelerate);
+        sim.tick(turn, accelerate);
+
+        // 更新所有粒子效果
+        particles.update();
+
+        // 模拟结束后切换到对应状态
+        if (sim.isOver()) {
+            setStatus(sim.isCrashed() ? GameStatus.DEATH_ANIMATION : GameStatus.GAME_OVER);
+        }
+    }
+
+    // 重置游戏
+    private void reset() {
+        // 创建新的一局模拟，种子记入录像以便之后原样回放
+        long seed = seedSource.nextLong();
+        sim = new Simulation(currentMode, seed);
+        sim.setListener(new EffectListener());
+        effectRand.setSeed(seed);
+        recorder = new ReplayRecorder(currentMode, seed, ReplayRecorder.DEFAULT_KEYFRAME_INTERVAL);
+
+        // 重置输入和计时器相关状态
+        isPlayerAccelerating = false;
+        turnInputs.clear();
+        scheduledDelay = sim.getCurrentDelay();
+        loop.resetStats();  // 每局重新统计调度抖动
+
+        setStatus(GameStatus.RUNNING);  // 设置游戏状态为运行中
+        requestFrame();  // 重绘界面
+        particles.clear();  // 清空粒子效果
+
+        // 记录游戏开始时间
+        startTime = System.currentTimeMillis();
+    }
+
+    // 设置游戏状态
+    private void setStatus(GameStatus newStatus) {
+        if (status == newStatus) return;  // 防止重复切换
+        
+        switch(newStatus) {
+            case RUNNING:
+                // 根据模式设置延迟时间
+                loop.setPeriod(scheduledDelay);
+                bgm.play();  // 播放背景音乐
+                startTime = System.currentTimeMillis();  // 记录开始时间
+                break;
+                
+            case DEATH_ANIMATION:
+                mixer.play(dieSound);  // 播放死亡音效
+                bgm.pause();  // 停止背景音乐
+                deathAnimFrame = 0;  // 重置死亡动画帧数
+                particles.clear();  // 清空现有粒子
+                
+                // 生成死亡粒子效果
+                if (sim != null) {
+                    try {
+                        spawnDeathParticles(sim.getSnake().getHeadCell());
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+                }
+                
+                // 切换到死亡动画帧率
+                loop.setPeriod(DEATH_FRAME_DELAY);
+                break;
+                
+            case GAME_OVER:
+                if (PRINT_TIMING) {
+                    System.out.println("游戏循环调度统计(按步长)" + loop.getStatsReport());
+                }
+                writeScoreToFile(sim.getPoints());  // 保存分数
+                saveReplay();  // 保存录像
+                
+                // 更新最高分(分数文件由后台线程在追加记录时更新)
+                int best = bestMap.getOrDefault(currentMode, 0);
+                if (sim.getPoints() > best) {
+                    bestMap.put(currentMode, sim.getPoints());
+                }
+                
+                requestFrame();  // 重绘界面
+                break;
+                
+            default:
+                break;
+        }
+        
+        status = newStatus;  // 更新状态
+        
+        // 只有运行和死亡动画状态需要游戏循环，其余状态暂停(不销毁线程)
+        if (newStatus == GameStatus.RUNNING || newStatus == GameStatus.DEATH_ANIMATION) {
+            loop.resume();
+        } else {
+            loop.pause();
+        }
+    }
+
+    // 切换暂停状态
+    private void togglePause() {
+        setStatus(status == GameStatus.PAUSED ? GameStatus.RUNNING : GameStatus.PAUSED);
+    }
+
+    // 渲染游戏画面：绘制最近一次发布的快照
+    private void render(Graphics g) {
+        renderer.render((Graphics2D) g, frames.getReadBuffer());
+        if (!firstFrameDrawn) {
+            firstFrameDrawn = true;
+            if (PRINT_TIMING) {
+                System.out.println("首帧绘制完成: 启动后" + ManagementFactory.getRuntimeMXBean().getUptime() + "ms");
+            }
+        }
+    }
+
+    // 键盘监听器内部类
+    private class KeyListener extends KeyAdapter {
+        @Override
+        public void keyPressed(KeyEvent e) {
+            int key = e.getKeyCode();
+            // 运行中的方向键只写入输入队列，由游戏循环在下一步取出，不需要等待当前这一步
+            if (status == GameStatus.RUNNING) {
+                Direction d = toDirection(key);
+                if (d != null) {
+                    turnInputs.offer(d);
+                    return;
+                }
+            }
+            // 其余按键与游戏循环的模拟步骤互斥，避免在一步执行到一半时重置或切换状态
+            synchronized (stateLock) {
+                handleKey(key);
+            }
+        }
+
+        // 方向键对应的方向，其他键返回null
+        private Direction toDirection(int key) {
+            switch (key) {
+                case KeyEvent.VK_LEFT: return Direction.LEFT;
+                case KeyEvent.VK_RIGHT: return Direction.RIGHT;
+                case KeyEvent.VK_UP: return Direction.UP;
+                case KeyEvent.VK_DOWN: return Direction.DOWN;
+                default: return null;
+            }
+        }
+
+        private void handleKey(int key) {
+            
+            // 模式选择界面按键处理
+            if (status == GameStatus.MODE_SELECT) {
+                if (key == KeyEvent.VK_1) {
+                    currentMode = GameMode.CLASSIC;
+                    reset();
+                    setStatus(GameStatus.RUNNING);
+                    return;
+                } else if (key == KeyEvent.VK_2) {
+                    currentMode = GameMode.AI;
+                    reset();
+                    setStatus(GameStatus.RUNNING);
+                    return;
+                } else if (key == KeyEvent.VK_3) {
+                    currentMode = GameMode.SPEEDUP;
+                    reset();
+                    setStatus(GameStatus.RUNNING);
+                    return;
+                } else if (key == KeyEvent.VK_4) {
+                    currentMode = GameMode.OBSTACLE;
+                    reset();
+                    setStatus(GameStatus.RUNNING);
+                    return;
+                } else if (key == KeyEvent.VK_5) {
+                    currentMode = GameMode.ARENA;
+                    reset();
+                    setStatus(GameStatus.RUNNING);
+                    return;
+                } else if (key == KeyEvent.VK_Q) {
+                    System.exit(0);  // 退出游戏
+                }
+            }
+            
+            // 游戏结束时的按键处理
+            if (status == GameStatus.GAME_OVER) {
+                if (key == KeyEvent.VK_1) {
+                    reset();  // 重新开始
+                    return;
+                } else if (key == KeyEvent.VK_2) {
+                    // 返回主菜单
+                    status = GameStatus.MODE_SELECT;
+                    requestFrame();
+                    return;
+                }
+            }
+            
+            // 游戏运行时的按键处理
+            if (status == GameStatus.RUNNING) {
+                if (key == KeyEvent.VK_SPACE) {
+                    isPlayerAccelerating = true;  // 加速
+                }
+            }
+            
+            // 游戏未开始时的任意键开始
+            if (status == GameStatus.NOT_STARTED) {
+                setStatus(GameStatus.RUNNING);
+            }
+            
+            // P键暂停/继续
+            if (key == KeyEvent.VK_P) {
+                togglePause();
+            }
+            // 背景音乐开关（M键）
+            if (key == KeyEvent.VK_M) {
+                isBgmOn = !isBgmOn;
+                if (isBgmOn) {
+                    bgm.play();
+                } else {
+                    bgm.pause();
+                }
+                requestFrame();
+                return;
+            }
+        }
+        
+        @Override
+        public void keyReleased(KeyEvent e) {
+            int key = e.getKeyCode();
+            // 松开空格键停止加速
+            if (key == KeyEvent.VK_SPACE && status == GameStatus.RUNNING) {
+                isPlayerAccelerating = false;
+            }
+        }
+    }
+
+    // 模拟事件监听器：播放音效并生成粒子特效
+    private class EffectListener implements SimulationListener {
+        @Override
+        public void onEat(int cell, boolean player) {
+            if (player) mixer.play(eatSound);
+            spawnEatParticles(cell);
+        }
+
+        @Override
+        public void onBoost(int head, Direction direction) {
+            spawnSpeedParticles(head, direction);
+        }
+    }
+
+    // 游戏循环内部类
+    private class GameLoop implements Runnable {
+        @Override
+        public void run() {
+            boolean changed;
+            synchronized (stateLock) {
+                changed = step();
+            }
+            // 快照已在step中发布，绘制不需要持有锁
+            if (changed) showFrame();
+        }
+
+        // 执行一步，返回是否需要显示新的一帧
+        private boolean step() {
+            // 死亡动画处理
+            if (status == GameStatus.DEATH_ANIMATION) {
+                deathAnimFrame++;
+                
+                // 更新所有粒子
+                particles.update();
+                
+                // 死亡动画结束后进入游戏结束状态
+                if (deathAnimFrame >= DEATH_ANIMATION_DURATION) {
+                    setStatus(GameStatus.GAME_OVER);
+                }
+                publishFrame();
+                return true;
+            }
+            
+            if (status != GameStatus.RUNNING) return false;
+            
+            update();  // 更新游戏状态
+
+            // 持续加速模式下速度提升后直接修改循环步长
+            if (status == GameStatus.RUNNING && sim.getCurrentDelay() != scheduledDelay) {
+                scheduledDelay = sim.getCurrentDelay();
+                loop.setPeriod(scheduledDelay);
+            }
+            publishFrame();
+            return true;
+        }
+    }
+
+    // 记录本局分数：先和历史对局比较再加入排行榜，然后交给后台线程追加到分数文件，不在游戏循环线程中等待磁盘
+    private void writeScoreToFile(int score) {
+        // 计算游戏时长
+        long now = System.currentTimeMillis();
+        long durationSec = 0;
+        if (startTime > 0) {
+            durationSec = (now - startTime) / 1000;
+        }
+
+        beatPercent = leaderboard.percentBeaten(currentMode, score);
+        leaderboard.add(now, currentMode, score, (int) durationSec);
+        if (scoreWriter != null) {
+            scoreWriter.submit(now, currentMode, score, (int) durationSec);
+        }
+    }
+
+    // 把本局录像写到 last.replay，在后台线程中压缩和写盘
+    private void saveReplay() {
+        Replay replay = recorder.finish(sim);
+        CompletableFuture.runAsync(() -> {
+            try {
+                replay.save(Paths.get("last.replay"));
+            } catch (IOException e) {
+                System.err.println("保存录像失败: " + e.getMessage());
+            }
+        });
+    }
+
+    // 吃到食物时生成粒子效果
+    private void spawnEatParticles(int cell) {
+        int px = Cell.toPixelX(cell);
+        int py = Cell.toPixelY(cell);
+        for (int i = 0; i < 20; i++) {
+            double angle = effectRand.nextDouble() * 2 * Math.PI;
+            double speed = 1 + effectRand.nextDouble() * 2;
+            particles.spawn(px, py, Math.cos(angle)*speed, Math.sin(angle)*speed,
+                    ParticleSystem.randomColor(effectRand), 8, 20 + effectRand.nextInt(10));
+        }
+    }
+    
+    // 死亡粒子效果生成
+    private void spawnDeathParticles(int cell) {
+        int numParticles = 40; // 粒子数量
+        int life = 40; // 粒子生命周期
+        int size = 30; // 粒子大小
+        int px = Cell.toPixelX(cell);
+        int py = Cell.toPixelY(cell);
+        for (int i = 0; i < numParticles; i++) {
+            double angle = 2 * Math.PI * i / numParticles + effectRand.nextDouble() * 0.2;
+            double speed = 3 + effectRand.nextDouble() * 2;
+            double vx = Math.cos(angle) * speed;
+            double vy = Math.sin(angle) * speed;
+            particles.spawn(px, py, vx, vy, ParticleSystem.WHITE, size, life);
+        }
+    }
+    
+    // 加速时生成流线粒子
+    private void spawnSpeedParticles(int head, Direction direction) {
+        double angle = 0;
+        
+        // 根据移动方向确定粒子角度
+        switch (direction) {
+            case UP: angle = Math.PI/2; break;            
+            case DOWN: angle = -Math.PI/2; break;
+            case LEFT: angle = 0; break;
+            case RIGHT: angle = Math.PI; break;
+        }
+        
+        // 生成粒子
+        int px = Cell.toPixelX(head) + 5;
+        int py = Cell.toPixelY(head) + 5;
+        for (int i = 0; i < 2; i++) {
+            double a = angle + (effectRand.nextDouble()-0.5)*0.5;
+            double speed = 1 + effectRand.nextDouble();
+            particles.spawn(px, py, Math.cos(a)*speed, Math.sin(a)*speed, ParticleSystem.CYAN, 6, 15);
+        }
+    }
+
+    // 打开分数文件并读取各模式最高分(首次运行时导入旧版 scores.txt)
+    private void loadBestScores() {
+        ScoreStore scores;
+        try {
+            scores = ScoreStore.open(Paths.get("scores.dat"), Paths.get("scores.txt"));
+        } catch (IOException e) {
+            System.out.println("分数文件打开失败: " + e.getMessage());
+            return;
+        }
+        for (GameMode mode : GameMode.values()) {
+            bestMap.put(mode, scores.getBest(mode));
+        }
+        // 之后只由后台线程访问分数文件，历史记录也在后台线程中回放给排行榜
+        scoreWriter = new PersistenceWorker(scores, leaderboard::add);
+    }
+}
\ No newline at end of file
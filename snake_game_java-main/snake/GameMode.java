@@ -0,0 +1,34 @@
+package snake;
+
+/**
+ * 游戏模式枚举，表示玩家在菜单中可以选择的玩法
+ */
+public enum GameMode {
+    CLASSIC("单人模式"),       // 经典模式（单人）
+    AI("AI对战模式"),          // AI对战模式
+    SPEEDUP("持续加速模式"),   // 持续加速模式
+    OBSTACLE("无尽障碍模式"),  // 无尽障碍模式
+    ARENA("竞技场模式");       // 竞技场模式（玩家与多条AI蛇混战）
+
+    private final String chineseName;  // 界面和分数文件中使用的中文名称
+
+    GameMode(String chineseName) {
+        this.chineseName = chineseName;
+    }
+
+    // 中文名称
+    public String getChineseName() {
+        return chineseName;
+    }
+
+    /**
+     * 按中文名称查找模式
+     * @return 对应的模式，名称未知(或为null)时返回null
+     */
+    public static GameMode fromChineseName(String name) {
+        for (GameMode mode : values()) {
+            if (mode.chineseName.equals(name)) return mode;
+        }
+        return null;
+    }
+}
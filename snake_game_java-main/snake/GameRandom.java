@@ -0,0 +1,66 @@
+package snake;
+
+import java.util.Random;
+
+/**
+ * 可保存状态的随机数生成器(SplitMix64)
+ *
+ * 整个内部状态只有一个long，可以随时读出并在以后原样恢复，
+ * 所以从关键帧恢复的模拟与原来的模拟产生完全相同的随机序列。
+ * 继承 java.util.Random 只是为了兼容现有的 nextInt/nextDouble/nextBoolean 等调用，
+ * 所有随机数都来自重写的 next()，也不需要 Random 内部的原子变量。
+ * 非线程安全。
+ */
+public class GameRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;  // 当前状态
+
+    // 用当前时间派生种子
+    public GameRandom() {
+        this(mix(System.nanoTime()));
+    }
+
+    /**
+     * @param seed 随机种子，相同的种子产生相同的序列
+     */
+    public GameRandom(long seed) {
+        super(seed);
+        this.state = seed;
+    }
+
+    // Random 的构造函数也会调用这里
+    @Override
+    public void setSeed(long seed) {
+        this.state = seed;
+    }
+
+    // 读取当前状态(用于保存关键帧)
+    public long getState() {
+        return state;
+    }
+
+    // 恢复到之前读取的状态
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    // SplitMix64的混合函数
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,280 @@
+package snake;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 游戏画面绘制器
+ *
+ * 持有绘制所需的字体、图片和静态背景缓存，只根据 RenderSnapshot 绘制一帧，
+ * 不访问游戏状态，也不依赖窗口组件，因此可以在无显示设备的环境下绘制到离屏图片。
+ */
+public class GameRenderer {
+    // 字体定义
+    private static Font FONT_M = new Font("ArcadeClassic", Font.PLAIN, 24);  // 中等字体
+    private static Font FONT_M_ITALIC = new Font("ArcadeClassic", Font.ITALIC, 24);  // 中等斜体
+    private static Font FONT_L = new Font("ArcadeClassic", Font.PLAIN, 84);  // 大字体
+    private static Font FONT_XL = new Font("ArcadeClassic", Font.PLAIN, 150);  // 超大字体
+    private static Font FONT_S = new Font("ArcadeClassic", Font.PLAIN, 16);  // 小号字体
+
+    // 常用颜色
+    private static final Color COLOR_TEXT = new Color(53, 220, 8);  // 默认文字颜色
+    private static final Color COLOR_LIGHT_GREEN = new Color(74, 245, 14);  // 浅绿色(图片缺失时的蛇身和AI蛇头)
+
+    // 游戏区域尺寸
+    private static int WIDTH = Simulation.WIDTH;
+    private static int HEIGHT = Simulation.HEIGHT;
+    // 网格大小
+    private static final int gridSize = Simulation.GRID_SIZE;
+    // 障碍物大小
+    private static final int OBSTACLE_SIZE = 16;
+
+    // 菜单和游戏区域的静态背景图层
+    private final BackgroundCache backgrounds = new BackgroundCache(
+            FONT_L.deriveFont(Font.BOLD, 64f), FONT_M.deriveFont(Font.BOLD, 36f), Color.black);
+    // 蛇和道具的预缩放图集，图片由资源加载线程陆续放入
+    private final SpriteAtlas sprites = new SpriteAtlas(gridSize);
+
+    /**
+     * 并行加载菜单背景和各种图片(立即返回)
+     * 每张图片到达后调用 onLoaded，调用方可以据此重绘，画面逐步补全；
+     * 加载完成前和加载失败的图片用纯色图形代替
+     * @param onLoaded 每张图片加载完成后在加载线程中调用
+     * @return 所有图片都处理完毕时完成
+     */
+    public CompletableFuture<Void> loadImages(Runnable onLoaded) {
+        AssetManager assets = AssetManager.get();
+        return CompletableFuture.allOf(
+                assets.image("menu_bg.png").thenAccept(img -> {
+                    if (img != null) backgrounds.setMenuSource(img);
+                    onLoaded.run();
+                }),
+                load(assets, "snake_head.png", SpriteAtlas.SNAKE_HEAD, onLoaded),
+                load(assets, "snake_body.png", SpriteAtlas.SNAKE_BODY, onLoaded),
+                load(assets, "ai_head.png", SpriteAtlas.AI_HEAD, onLoaded),
+                load(assets, "ai_body.png", SpriteAtlas.AI_BODY, onLoaded),
+                load(assets, "shrink_item.png", SpriteAtlas.SHRINK_ITEM, onLoaded),
+                load(assets, "apple.png", SpriteAtlas.APPLE, onLoaded),
+                load(assets, "hamburger.png", SpriteAtlas.BURGER, onLoaded));
+    }
+
+    private CompletableFuture<Void> load(AssetManager assets, String name, int sprite, Runnable onLoaded) {
+        return assets.image(name).thenAccept(img -> {
+            if (img != null) sprites.setSource(sprite, img);
+            onLoaded.run();
+        });
+    }
+
+    // 绘制居中文本
+    public void drawCenteredString(Graphics g, String text, Font font, int y) {
+        // 计算文本宽度以确定居中位置
+        FontMetrics metrics = g.getFontMetrics(font);
+        int x = (WIDTH - metrics.stringWidth(text)) / 2;
+
+        // 设置字体并绘制文本
+        g.setFont(font);
+        g.drawString(text, x, y);
+    }
+
+    /**
+     * 绘制一帧
+     * @param g2d 目标画布
+     * @param frame 要绘制的快照
+     */
+    public void render(Graphics2D g2d, RenderSnapshot frame) {
+        GameStatus status = frame.status;
+        g2d.setColor(COLOR_TEXT);  // 设置默认颜色
+        g2d.setFont(FONT_M);  // 设置默认字体
+        
+        // 模式选择界面：整张贴上缓存的菜单图层
+        if (status == GameStatus.MODE_SELECT) {
+            g2d.drawImage(backgrounds.getMenu(g2d.getDeviceConfiguration(), WIDTH + 40, HEIGHT + 80), 0, 0, null);
+            return;
+        }
+        
+        // 游戏未开始时的界面
+        if (status == GameStatus.NOT_STARTED) {
+            drawCenteredString(g2d, "贪吃蛇", FONT_XL, 200);
+            drawCenteredString(g2d, "游戏", FONT_XL, 350);
+            drawCenteredString(g2d, "按任意键开始游戏", FONT_M_ITALIC, 430);
+            return;
+        }
+
+        // 绘制游戏区域网格和边界(缓存的静态图层)
+        g2d.drawImage(backgrounds.getPlayfield(g2d.getDeviceConfiguration(), WIDTH + 40, HEIGHT + 80), 0, 0, null);
+
+        // 从快照读取世界状态
+        if (!frame.hasWorld) return;
+        int[] snake = frame.snake;
+        int[] aiCells = frame.aiCells;
+        int apple = frame.apple;
+        int shrinkItem = frame.shrinkItem;
+        int burger = frame.burger;
+        int points = frame.points;
+        long startTime = frame.startTime;
+        GameMode currentMode = frame.mode;
+
+        // 绘制游戏信息：时间、分数、蛇长度、最高分
+        long durationSec = 0;
+        if (startTime > 0 && (status == GameStatus.RUNNING || status == GameStatus.PAUSED || status == GameStatus.DEATH_ANIMATION)) {
+            durationSec = (System.currentTimeMillis() - startTime) / 1000;
+        }
+        long min = durationSec / 60;
+        long sec = durationSec % 60;
+        String timeStr = "时间: " + min + ":" + String.format("%02d", sec);
+        String scoreStr = "当前分数: " + String.format("%04d", points);
+        int snakeLength = frame.snakeLength;
+        String lengthStr = "蛇长度: " + snakeLength;
+        String bestStr = currentMode.getChineseName() + "最高分: " + String.format("%04d", frame.best);
+        
+        // 计算信息总宽度并居中显示
+        FontMetrics metrics = g2d.getFontMetrics(FONT_M);
+        String[] infoArr = {timeStr, scoreStr, lengthStr, bestStr};
+        int[] infoW = new int[infoArr.length];
+        int totalW = 0;
+        for (int i = 0; i < infoArr.length; i++) {
+            infoW[i] = metrics.stringWidth(infoArr[i]);
+            totalW += infoW[i];
+        }
+        int gap = (WIDTH + 40 - totalW) / (infoArr.length + 1); // 动态均分间隔
+        int x = gap;
+        int y = 30;
+        for (int i = 0; i < infoArr.length; i++) {
+            g2d.drawString(infoArr[i], x, y);
+            x += infoW[i] + gap;
+        }
+
+        // 本帧使用的精灵图集(所有精灵都按原尺寸从图集复制)
+        SpriteAtlas.Sheet sheet = sprites.prepare(g2d.getDeviceConfiguration());
+
+        // 绘制苹果
+        if (apple != Cell.NONE) {
+            if (sheet.has(SpriteAtlas.APPLE)) {
+                sheet.draw(g2d, SpriteAtlas.APPLE, Cell.toPixelX(apple), Cell.toPixelY(apple));
+            } else {
+                g2d.setColor(Color.RED);
+                g2d.fillOval(Cell.toPixelX(apple), Cell.toPixelY(apple), gridSize, gridSize);
+                g2d.setColor(COLOR_TEXT);
+            }
+        }
+
+        // 绘制缩短道具
+        if (shrinkItem != Cell.NONE) {
+            if (sheet.has(SpriteAtlas.SHRINK_ITEM)) {
+                sheet.draw(g2d, SpriteAtlas.SHRINK_ITEM, Cell.toPixelX(shrinkItem), Cell.toPixelY(shrinkItem));
+            } else {
+                g2d.setColor(Color.BLUE);
+                g2d.fillOval(Cell.toPixelX(shrinkItem), Cell.toPixelY(shrinkItem), gridSize, gridSize);
+            }
+        }
+
+        // 绘制汉堡
+        if (burger != Cell.NONE) {
+            if (sheet.has(SpriteAtlas.BURGER)) {
+                sheet.draw(g2d, SpriteAtlas.BURGER, Cell.toPixelX(burger), Cell.toPixelY(burger));
+            } else {
+                g2d.setColor(Color.YELLOW);
+                g2d.fillOval(Cell.toPixelX(burger), Cell.toPixelY(burger), gridSize, gridSize);
+                g2d.setColor(COLOR_TEXT);
+            }
+        }
+
+        // 游戏结束界面
+        if (status == GameStatus.GAME_OVER) {
+            drawCenteredString(g2d, frame.boardFull ? "棋盘已满" : "游戏结束", FONT_L, 300);
+            String scoreLine = "本局得分: " + points;
+            if (frame.beatPercent >= 0) {
+                scoreLine += "    超过了" + frame.beatPercent + "%的对局";
+            }
+            drawCenteredString(g2d, scoreLine, FONT_M, 350);
+            drawCenteredString(g2d, "按1：继续游戏    按2：退出到主菜单", FONT_M_ITALIC, 400);
+        }
+
+        // 暂停界面
+        if (status == GameStatus.PAUSED) {
+            g2d.drawString("暂停", 600, 14);
+        }
+
+        // 绘制蛇头
+        if (sheet.has(SpriteAtlas.SNAKE_HEAD)) {
+            sheet.draw(g2d, SpriteAtlas.SNAKE_HEAD, Cell.toPixelX(snake[0]), Cell.toPixelY(snake[0]));
+        } else {
+            g2d.setColor(Color.ORANGE);
+            g2d.fillOval(Cell.toPixelX(snake[0]), Cell.toPixelY(snake[0]), gridSize, gridSize);
+        }
+        
+        // 绘制蛇身
+        if (sheet.has(SpriteAtlas.SNAKE_BODY)) {
+            for (int i = 1; i < frame.snakeLength; i++) {
+                sheet.draw(g2d, SpriteAtlas.SNAKE_BODY, Cell.toPixelX(snake[i]), Cell.toPixelY(snake[i]));
+            }
+        } else {
+            g2d.setColor(COLOR_LIGHT_GREEN);
+            for (int i = 1; i < frame.snakeLength; i++) {
+                g2d.drawOval(Cell.toPixelX(snake[i]), Cell.toPixelY(snake[i]), gridSize, gridSize);
+            }
+        }
+
+        // 绘制AI蛇(竞技场模式下有多条)
+        for (int k = 0; k < frame.aiCount; k++) {
+            int head = frame.aiStart[k];
+            int end = frame.aiStart[k + 1];
+            if (sheet.has(SpriteAtlas.AI_HEAD)) {
+                sheet.draw(g2d, SpriteAtlas.AI_HEAD, Cell.toPixelX(aiCells[head]), Cell.toPixelY(aiCells[head]));
+            } else {
+                g2d.setColor(COLOR_LIGHT_GREEN);
+                g2d.fillOval(Cell.toPixelX(aiCells[head]), Cell.toPixelY(aiCells[head]), gridSize, gridSize);
+            }
+            if (sheet.has(SpriteAtlas.AI_BODY)) {
+                for (int i = head + 1; i < end; i++) {
+                    sheet.draw(g2d, SpriteAtlas.AI_BODY, Cell.toPixelX(aiCells[i]), Cell.toPixelY(aiCells[i]));
+                }
+            } else {
+                g2d.setColor(Color.RED);
+                for (int i = head + 1; i < end; i++) {
+                    g2d.drawOval(Cell.toPixelX(aiCells[i]), Cell.toPixelY(aiCells[i]), gridSize, gridSize);
+                }
+            }
+            g2d.setColor(COLOR_TEXT); // 恢复默认颜色
+        }
+        
+        // 绘制所有粒子效果
+        frame.particles.draw(g2d);
+
+        // 持续加速模式下显示速度等级
+        if (currentMode == GameMode.SPEEDUP) {
+            g2d.drawString("速度等级: " + (frame.speedUpLevel + 1), 320, 60);
+        }
+
+        // 竞技场模式下显示存活的AI蛇数量
+        if (currentMode == GameMode.ARENA) {
+            g2d.drawString("剩余AI蛇: " + frame.aiCount, 320, 60);
+        }
+
+        // 绘制障碍物
+        if (currentMode == GameMode.OBSTACLE) {
+            // 按颜色分两遍绘制，不用逐个切换颜色：静态障碍物为灰色，移动障碍物为红色
+            g2d.setColor(Color.GRAY);
+            for (int i = 0; i < frame.obstacleCount; i++) {
+                if (frame.obstacleMoving[i]) continue;
+                int cell = frame.obstacles[i];
+                g2d.fillRect(Cell.toPixelX(cell), Cell.toPixelY(cell), OBSTACLE_SIZE, OBSTACLE_SIZE);
+            }
+            g2d.setColor(Color.RED);
+            for (int i = 0; i < frame.obstacleCount; i++) {
+                if (!frame.obstacleMoving[i]) continue;
+                int cell = frame.obstacles[i];
+                g2d.fillRect(Cell.toPixelX(cell), Cell.toPixelY(cell), OBSTACLE_SIZE, OBSTACLE_SIZE);
+            }
+            g2d.setColor(COLOR_TEXT);
+        }
+        // 显示音乐状态
+        g2d.setFont(FONT_S);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString("音乐: " + (frame.bgmOn ? "开" : "关") + " (M键切换)", 30, HEIGHT + 60);
+    }
+}
@@ -1,3 +1,5 @@
+package snake;
+
 /**
  * 游戏状态枚举，表示游戏当前所处的不同状态
  * 
@@ -0,0 +1,24 @@
+package snake;
+
+import java.util.function.IntPredicate;
+
+/**
+ * 贪心策略(最初的AI逻辑)
+ * 沿曼哈顿距离较大的轴直接转向目标，不考虑任何障碍，可能掉头撞进自己的身体
+ */
+public class GreedyStrategy implements AIStrategy {
+    @Override
+    public Direction decide(int head, int length, Direction current, int target, IntPredicate blocked) {
+        if (target == Cell.NONE) return current;
+        int dx = Cell.col(target) - Cell.col(head);
+        int dy = Cell.row(target) - Cell.row(head);
+
+        // 根据目标位置决定移动方向
+        if (Math.abs(dx) > Math.abs(dy)) {
+            return dx > 0 ? Direction.RIGHT : Direction.LEFT;
+        } else if (dy != 0) {
+            return dy > 0 ? Direction.DOWN : Direction.UP;
+        }
+        return current; // 目标就在头上
+    }
+}
@@ -0,0 +1,64 @@
+package snake;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 玩家转向输入队列
+ *
+ * 单生产者(键盘事件线程)单消费者(游戏循环线程)的无锁环形队列，按顺序保存按下的方向键。
+ * 游戏循环每一步在固定时机取出一个转向，一步之内连续按下的多个方向键会排队到后续几步依次生效，
+ * 不会互相覆盖，也不会因为两次转向落在同一步里而直接掉头。
+ * 读写位置各自只由一个线程修改，通过 AtomicLong 的 lazySet/get 发布，不需要加锁。
+ */
+public class InputQueue {
+    // 队列容量(2的幂)，按键积压超过容量时丢弃新的输入
+    private static final int CAPACITY = 16;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final byte[] ring = new byte[CAPACITY];  // 方向的序号
+    private final AtomicLong head = new AtomicLong();  // 下一个要读取的位置(只由消费者修改)
+    private final AtomicLong tail = new AtomicLong();  // 下一个要写入的位置(只由生产者修改)
+
+    /**
+     * 加入一个转向输入(生产者调用)
+     * @return 队列已满时返回false
+     */
+    public boolean offer(Direction d) {
+        long t = tail.get();
+        if (t - head.get() == CAPACITY) return false;
+        ring[(int) t & (CAPACITY - 1)] = (byte) d.ordinal();
+        tail.lazySet(t + 1);  // 先写入数据再发布位置
+        return true;
+    }
+
+    /**
+     * 取出下一个转向输入(消费者调用)
+     * @return 队列为空时返回null
+     */
+    public Direction poll() {
+        long h = head.get();
+        if (h == tail.get()) return null;
+        Direction d = DIRECTIONS[ring[(int) h & (CAPACITY - 1)]];
+        head.lazySet(h + 1);
+        return d;
+    }
+
+    /**
+     * 取出下一个相对当前方向合法的转向(消费者调用)
+     * 与当前方向平行的输入(同向或反向)不会生效，直接丢弃并继续查看后面的输入
+     * @param current 蛇当前的移动方向
+     * @return 合法的转向，没有时返回null
+     */
+    public Direction pollTurn(Direction current) {
+        Direction d;
+        while ((d = poll()) != null) {
+            if (d.isX() != current.isX()) return d;
+        }
+        return null;
+    }
+
+    // 丢弃所有未处理的输入(消费者调用，或在确认消费者不会同时读取时调用)
+    public void clear() {
+        head.lazySet(tail.get());
+    }
+}
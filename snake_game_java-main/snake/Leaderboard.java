@@ -0,0 +1,236 @@
+package snake;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * 排行榜统计
+ *
+ * 每个模式增量维护三种结构，加入一条记录和查询都不需要重新扫描历史：
+ *   前K名：容量为K的小顶堆，新分数只和堆顶比较
+ *   分数分布：按分数计数的树状数组(分数是不大的非负整数，直接精确统计，不需要近似的分位数草图)，
+ *            "超过了百分之多少的对局"和任意分位数都是O(log 最大分数)
+ *   每日汇总：按日期排序的局数、总分、最高分
+ * 所有方法都加锁，分数写入线程回放历史记录的同时游戏循环线程可以查询。
+ */
+public class Leaderboard {
+    public static final int DEFAULT_TOP_K = 10;
+
+    // 一局的成绩
+    public static final class Entry {
+        public final long time;  // 结束时间(毫秒)
+        public final int score;  // 分数
+        public final int durationSec;  // 已玩秒数
+
+        Entry(long time, int score, int durationSec) {
+            this.time = time;
+            this.score = score;
+            this.durationSec = durationSec;
+        }
+    }
+
+    // 一天的汇总
+    public static final class DayStats {
+        public final LocalDate date;  // 日期
+        public int games;  // 局数
+        public long totalScore;  // 总分
+        public int bestScore;  // 最高分
+
+        DayStats(LocalDate date) {
+            this.date = date;
+        }
+
+        private DayStats copy() {
+            DayStats d = new DayStats(date);
+            d.games = games;
+            d.totalScore = totalScore;
+            d.bestScore = bestScore;
+            return d;
+        }
+
+        // 平均分
+        public double getAverage() {
+            return games == 0 ? 0 : (double) totalScore / games;
+        }
+    }
+
+    // 单个模式的统计
+    private static final class ModeStats {
+        final PriorityQueue<Entry> top = new PriorityQueue<>((a, b) -> Integer.compare(a.score, b.score));
+        long[] tree = new long[64];  // 按分数计数的树状数组(下标从1开始，分数s存放在s+1)
+        long total;  // 总局数
+        final TreeMap<LocalDate, DayStats> days = new TreeMap<>();
+    }
+
+    private final int topK;
+    private final ZoneId zone;
+    private final Map<GameMode, ModeStats> stats = new EnumMap<>(GameMode.class);
+
+    public Leaderboard() {
+        this(DEFAULT_TOP_K, ZoneId.systemDefault());
+    }
+
+    /**
+     * @param topK 每个模式保留的前几名数量
+     * @param zone 划分日期使用的时区
+     */
+    public Leaderboard(int topK, ZoneId zone) {
+        this.topK = topK;
+        this.zone = zone;
+        for (GameMode mode : GameMode.values()) {
+            stats.put(mode, new ModeStats());
+        }
+    }
+
+    /**
+     * 加入一局成绩(参数与 ScoreStore.Visitor 一致，可以直接用于回放历史记录)
+     */
+    public synchronized void add(long time, GameMode mode, int score, int durationSec) {
+        ModeStats s = stats.get(mode);
+        score = Math.max(score, 0);
+
+        // 前K名
+        if (s.top.size() < topK) {
+            s.top.add(new Entry(time, score, durationSec));
+        } else if (score > s.top.peek().score) {
+            s.top.poll();
+            s.top.add(new Entry(time, score, durationSec));
+        }
+
+        // 分数分布
+        if (score + 1 >= s.tree.length) grow(s, score + 2);
+        for (int i = score + 1; i < s.tree.length; i += i & -i) {
+            s.tree[i]++;
+        }
+        s.total++;
+
+        // 每日汇总
+        LocalDate date = Instant.ofEpochMilli(time).atZone(zone).toLocalDate();
+        DayStats day = s.days.computeIfAbsent(date, DayStats::new);
+        day.games++;
+        day.totalScore += score;
+        day.bestScore = Math.max(day.bestScore, score);
+    }
+
+    // 树状数组容量翻倍(至少容纳n个下标)：先还原各分数的计数再重建
+    private static void grow(ModeStats s, int n) {
+        int size = s.tree.length;
+        while (size < n) size *= 2;
+        long[] counts = new long[size];
+        for (int i = 1; i < s.tree.length; i++) {
+            counts[i] = prefix(s.tree, i) - prefix(s.tree, i - 1);
+        }
+        long[] tree = new long[size];
+        for (int i = 1; i < size; i++) {
+            tree[i] += counts[i];
+            int parent = i + (i & -i);
+            if (parent < size) tree[parent] += tree[i];
+        }
+        s.tree = tree;
+    }
+
+    // 下标1..i的计数之和
+    private static long prefix(long[] tree, int i) {
+        long sum = 0;
+        for (; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 该分数超过了该模式下百分之多少的历史对局(严格低于该分数的对局占比)
+     * @return 0~100，没有历史对局时返回-1
+     */
+    public synchronized int percentBeaten(GameMode mode, int score) {
+        ModeStats s = stats.get(mode);
+        if (s.total == 0) return -1;
+        int i = Math.min(Math.max(score, 0), s.tree.length - 1);
+        return (int) (100 * prefix(s.tree, i) / s.total);
+    }
+
+    /**
+     * 分位数对应的分数
+     * @param p 0~1之间的分位(例如0.5为中位数)
+     * @return 至少有p比例的对局不高于该分数的最小分数，没有对局时返回0
+     */
+    public synchronized int scoreAtPercentile(GameMode mode, double p) {
+        ModeStats s = stats.get(mode);
+        if (s.total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p * s.total));
+        // 在树状数组上二分查找第一个前缀和不小于rank的下标
+        int pos = 0;
+        for (int step = Integer.highestOneBit(s.tree.length - 1); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next < s.tree.length && s.tree[next] < rank) {
+                pos = next;
+                rank -= s.tree[next];
+            }
+        }
+        return pos;  // 下标pos+1对应分数pos
+    }
+
+    // 该模式的前K名，分数从高到低
+    public synchronized List<Entry> getTop(GameMode mode) {
+        List<Entry> list = new ArrayList<>(stats.get(mode).top);
+        list.sort((a, b) -> Integer.compare(b.score, a.score));
+        return list;
+    }
+
+    // 该模式按日期排列的每日汇总(副本)
+    public synchronized List<DayStats> getDaily(GameMode mode) {
+        List<DayStats> list = new ArrayList<>();
+        for (DayStats d : stats.get(mode).days.values()) {
+            list.add(d.copy());
+        }
+        return list;
+    }
+
+    // 该模式的总局数
+    public synchronized long getGameCount(GameMode mode) {
+        return stats.get(mode).total;
+    }
+
+    /**
+     * 输出分数文件的排行榜
+     * 用法: java -cp build/libs/snake_game_java.jar snake.Leaderboard [分数文件(默认scores.dat)]
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "scores.dat");
+        if (!Files.exists(file)) {
+            System.err.println("分数文件不存在: " + file);
+            System.exit(1);
+        }
+        Leaderboard board = new Leaderboard();
+        try (ScoreStore store = ScoreStore.open(file, null)) {
+            store.forEach(board::add);
+        }
+        for (GameMode mode : GameMode.values()) {
+            long games = board.getGameCount(mode);
+            if (games == 0) continue;
+            System.out.printf("== %s  局数: %d  p50: %d  p90: %d  p99: %d%n", mode.getChineseName(), games,
+                    board.scoreAtPercentile(mode, 0.5), board.scoreAtPercentile(mode, 0.9),
+                    board.scoreAtPercentile(mode, 0.99));
+            int rank = 1;
+            for (Entry e : board.getTop(mode)) {
+                System.out.printf("  %2d. %5d分  %s  %d秒%n", rank++, e.score,
+                        Instant.ofEpochMilli(e.time).atZone(board.zone).toLocalDateTime(), e.durationSec);
+            }
+            List<DayStats> daily = board.getDaily(mode);
+            for (DayStats d : daily.subList(Math.max(0, daily.size() - 7), daily.size())) {
+                System.out.printf("  %s  局数: %d  平均: %.1f  最高: %d%n", d.date, d.games, d.getAverage(), d.bestScore);
+            }
+        }
+    }
+}
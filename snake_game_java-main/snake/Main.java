@@ -1,3 +1,5 @@
+package snake;
+
 import java.awt.EventQueue;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
@@ -0,0 +1,214 @@
+package snake;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 流式背景音乐
+ *
+ * 后台读取线程每次从文件读取一小段，转换为混音器的输出格式后放入固定大小的环形缓冲，
+ * 混音线程每段从缓冲中取出样本叠加到输出上。不论曲目多长，内存占用都只有这个缓冲。
+ * 读到文件末尾时读取线程立即重新打开文件接着写入缓冲，循环之间没有空隙。
+ * 缓冲满时读取线程挂起，直到混音线程取走样本、继续播放或关闭时被唤醒，暂停期间不会定时醒来轮询；
+ * 暂停时混音线程不再取样本，恢复后从暂停处继续播放。
+ * 构造和启动都不访问磁盘，文件不存在时读取线程输出一行提示后退出，背景音乐保持静音。
+ * 环形缓冲是单生产者(读取线程)单消费者(混音线程)的无锁队列，与 InputQueue 相同。
+ */
+public class MusicStream {
+    private static final int CAPACITY = 1 << 15;  // 缓冲容量(样本数，2的幂)，约0.37秒
+    private static final int READ_BYTES = 8192;  // 每次从文件读取的字节数
+
+    private final String name;  // 资源文件名
+    private final short[] ring = new short[CAPACITY];  // 交错的立体声样本
+    private final AtomicLong head = new AtomicLong();  // 下一个要读取的位置(只由混音线程修改)
+    private final AtomicLong tail = new AtomicLong();  // 下一个要写入的位置(只由读取线程修改)
+    private volatile boolean playing = false;  // 是否正在播放
+    private volatile boolean closed = false;
+    private volatile boolean readerWaiting = false;  // 读取线程是否因缓冲满而挂起
+    private volatile Thread thread;
+
+    // 以下只由读取线程访问：跨段的线性插值重采样状态
+    private double step;  // 每个输出帧对应的源帧数
+    private double position;  // 下一个输出帧在源中的位置(0为上一段的最后一帧)
+    private short prevLeft;  // 上一段最后一帧
+    private short prevRight;
+
+    /**
+     * @param name 资源文件名(WAV等 AudioSystem 支持的PCM格式)，通过 AssetManager 查找
+     */
+    public MusicStream(String name) {
+        this.name = name;
+    }
+
+    // 启动读取线程(立即返回)
+    public synchronized void start() {
+        if (thread != null) return;
+        thread = new Thread(this::run, "bgm-reader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // 开始或继续播放
+    public void play() {
+        playing = true;
+        wakeReader();
+    }
+
+    // 暂停播放，缓冲中的样本保留到继续播放时
+    public void pause() {
+        playing = false;
+    }
+
+    // 停止读取线程
+    public void close() {
+        closed = true;
+        playing = false;
+        wakeReader();
+    }
+
+    // 唤醒挂起的读取线程(不阻塞，可以在混音线程中调用)
+    private void wakeReader() {
+        Thread t = thread;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    /**
+     * 把缓冲中的样本叠加到混音缓冲上(混音线程调用，不阻塞)
+     * 缓冲中的样本不够时(读取跟不上或文件不存在)缺少的部分为静音
+     * @param dst 混音用的累加缓冲(交错立体声)
+     * @param frames 帧数
+     */
+    void mixInto(int[] dst, int frames) {
+        if (!playing) return;
+        long h = head.get();
+        int n = (int) Math.min(tail.get() - h, frames * 2L);
+        for (int i = 0; i < n; i++) {
+            dst[i] += ring[(int) (h + i) & (CAPACITY - 1)];
+        }
+        head.set(h + n);  // 与读取线程的等待标志构成先写后读，不会漏掉唤醒
+        if (n > 0 && readerWaiting) wakeReader();
+    }
+
+    // 读取线程：循环读取文件写入缓冲
+    private void run() {
+        byte[] bytes = new byte[READ_BYTES];
+        short[] out = null;
+        while (!closed) {
+            boolean empty = true;
+            try (AudioInputStream in = open()) {
+                AudioFormat format = in.getFormat();
+                int channels = format.getChannels();
+                int frameBytes = 2 * channels;
+                step = format.getSampleRate() / AudioMixer.SAMPLE_RATE;
+                if (out == null) {
+                    out = new short[((int) Math.ceil(READ_BYTES / frameBytes / step) + 2) * 2];
+                }
+                int n;
+                while (!closed && (n = readFrames(in, bytes, frameBytes)) > 0) {
+                    empty = false;
+                    int count = convert(bytes, n / frameBytes, channels, out);
+                    push(out, count);
+                }
+            } catch (FileNotFoundException e) {
+                System.out.println("背景音乐文件不存在，背景音乐已关闭: " + name);
+                return;
+            } catch (Exception e) {
+                System.out.println("背景音乐读取失败，背景音乐已关闭: " + name + " (" + e.getMessage() + ")");
+                return;
+            }
+            if (empty) return;  // 没有任何样本的文件不循环
+        }
+    }
+
+    // 通过 AssetManager 打开文件，转换为源采样率、源声道数的16位小端PCM
+    private AudioInputStream open() throws Exception {
+        AudioInputStream raw = AudioSystem.getAudioInputStream(AssetManager.get().open(name));
+        AudioFormat src = raw.getFormat();
+        AudioFormat pcm = new AudioFormat(src.getSampleRate(), 16, src.getChannels(), true, false);
+        return AudioSystem.getAudioInputStream(pcm, raw);
+    }
+
+    // 尽量读满缓冲，返回整帧的字节数(文件末尾不足一帧的部分丢弃)
+    private static int readFrames(AudioInputStream in, byte[] bytes, int frameBytes) throws IOException {
+        int total = 0;
+        int len = bytes.length - bytes.length % frameBytes;
+        while (total < len) {
+            int n = in.read(bytes, total, len - total);
+            if (n <= 0) break;
+            total += n;
+        }
+        return total - total % frameBytes;
+    }
+
+    /**
+     * 把一段源帧转换为输出格式的立体声样本
+     * 单声道复制到两个声道；采样率不同时线性插值，插值位置跨段连续，循环处也不会出现断点
+     * @return 写入 out 的样本数
+     */
+    private int convert(byte[] bytes, int frames, int channels, short[] out) {
+        int frameBytes = 2 * channels;
+        int o = 0;
+        if (step == 1.0) {
+            for (int f = 0; f < frames; f++) {
+                int p = f * frameBytes;
+                short left = (short) ((bytes[p] & 0xFF) | (bytes[p + 1] << 8));
+                out[o++] = left;
+                out[o++] = channels > 1 ? (short) ((bytes[p + 2] & 0xFF) | (bytes[p + 3] << 8)) : left;
+            }
+            return o;
+        }
+
+        // 源帧编号：0为上一段的最后一帧，k为本段的第k-1帧
+        while (position < frames) {
+            int i = (int) position;
+            double t = position - i;
+            int p = i * frameBytes;  // 本段第i帧，即编号i+1
+            int bl = (short) ((bytes[p] & 0xFF) | (bytes[p + 1] << 8));
+            int br = channels > 1 ? (short) ((bytes[p + 2] & 0xFF) | (bytes[p + 3] << 8)) : bl;
+            int al = prevLeft;
+            int ar = prevRight;
+            if (i > 0) {
+                int q = p - frameBytes;
+                al = (short) ((bytes[q] & 0xFF) | (bytes[q + 1] << 8));
+                ar = channels > 1 ? (short) ((bytes[q + 2] & 0xFF) | (bytes[q + 3] << 8)) : al;
+            }
+            out[o++] = (short) Math.round(al + (bl - al) * t);
+            out[o++] = (short) Math.round(ar + (br - ar) * t);
+            position += step;
+        }
+        position -= frames;
+        int last = (frames - 1) * frameBytes;
+        prevLeft = (short) ((bytes[last] & 0xFF) | (bytes[last + 1] << 8));
+        prevRight = channels > 1 ? (short) ((bytes[last + 2] & 0xFF) | (bytes[last + 3] << 8)) : prevLeft;
+        return o;
+    }
+
+    // 写入缓冲，空间不足时挂起，等混音线程取走样本后唤醒
+    private void push(short[] src, int count) {
+        int off = 0;
+        while (off < count && !closed) {
+            long t = tail.get();
+            int free = (int) (CAPACITY - (t - head.get()));
+            if (free == 0) {
+                // 先登记等待再复查，混音线程在两者之间取走样本时 unpark 的许可会让 park 立即返回
+                readerWaiting = true;
+                if (CAPACITY - (t - head.get()) == 0 && !closed) {
+                    LockSupport.park(this);
+                }
+                readerWaiting = false;
+                continue;
+            }
+            int n = Math.min(free, count - off);
+            for (int i = 0; i < n; i++) {
+                ring[(int) (t + i) & (CAPACITY - 1)] = src[off + i];
+            }
+            tail.lazySet(t + n);  // 先写入数据再发布位置
+            off += n;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package snake;
+
+/**
+ * 无尽障碍模式中的障碍物
+ */
+public class Obstacle {
+    private int cell;  // 所在格子(见Cell)
+    private ObstacleType type;  // 类型
+    private int dx, dy; // 仅MOVING类型用，每帧移动的格数
+
+    // 构造函数
+    public Obstacle(int cell, ObstacleType type, int dx, int dy) {
+        this.cell = cell;
+        this.type = type;
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    // 获取所在格子
+    public int getCell() { return cell; }
+
+    // 获取位置(像素坐标，供界面层使用)
+    public Point getPos() { return Point.fromCell(cell); }
+
+    // 获取类型
+    public ObstacleType getType() { return type; }
+
+    // 获取每帧横向移动的格数
+    public int getDx() { return dx; }
+
+    // 获取每帧纵向移动的格数
+    public int getDy() { return dy; }
+
+    // 移动方法
+    public void move() {
+        if (type == ObstacleType.MOVING) {
+            cell = Cell.of(Cell.col(cell) + dx, Cell.row(cell) + dy);
+        }
+    }
+
+    // 边界反弹检测(超出范围时反向，下一帧移回)
+    public void bounceIfNeeded(int minCol, int minRow, int maxCol, int maxRow) {
+        if (type == ObstacleType.MOVING) {
+            if (Cell.col(cell) < minCol || Cell.col(cell) > maxCol) dx = -dx;
+            if (Cell.row(cell) < minRow || Cell.row(cell) > maxRow) dy = -dy;
+        }
+    }
+}
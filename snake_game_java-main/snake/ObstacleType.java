@@ -0,0 +1,9 @@
+package snake;
+
+/**
+ * 障碍物类型枚举
+ */
+public enum ObstacleType {
+    STATIC,  // 静态障碍物
+    MOVING   // 移动障碍物（碰到边界反弹）
+}
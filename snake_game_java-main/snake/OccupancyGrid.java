@@ -0,0 +1,89 @@
+package snake;
+
+/**
+ * 棋盘占用计数网格
+ *
+ * 按格子记录被占用的次数(short[]，下标为 row * cols + col)，
+ * 蛇在移动、增长和缩短时增量维护，使"某格是否被占用"的查询为常数时间。
+ * 使用计数而不是位图，因为增长时蛇尾会在同一格暂时重叠。
+ * 游戏区域外的格子不计入网格，查询时视为未占用。
+ * 可以关联一个棋盘级的 FreeCellIndex，占用变化会同步转发给它。
+ */
+public class OccupancyGrid {
+    private final int cols;  // 列数
+    private final int rows;  // 行数
+    private final short[] counts;  // 每格占用次数
+    private final FreeCellIndex board;  // 关联的空闲格子索引，可以为null
+
+    /**
+     * 按游戏区域的默认尺寸创建网格
+     */
+    public OccupancyGrid() {
+        this(Simulation.COLS, Simulation.ROWS, null);
+    }
+
+    /**
+     * 按游戏区域的默认尺寸创建网格，并把占用变化同步给棋盘
+     * @param board 棋盘的空闲格子索引
+     */
+    public OccupancyGrid(FreeCellIndex board) {
+        this(Simulation.COLS, Simulation.ROWS, board);
+    }
+
+    /**
+     * @param cols 列数
+     * @param rows 行数
+     * @param board 关联的空闲格子索引，可以为null
+     */
+    public OccupancyGrid(int cols, int rows, FreeCellIndex board) {
+        this.cols = cols;
+        this.rows = rows;
+        this.counts = new short[cols * rows];
+        this.board = board;
+    }
+
+    /**
+     * 将格子坐标换算为数组下标
+     * @return 数组下标，超出游戏区域时返回-1
+     */
+    private int indexOf(int cell) {
+        int col = Cell.col(cell);
+        int row = Cell.row(cell);
+        if (col < 0 || col >= cols || row < 0 || row >= rows) return -1;
+        return row * cols + col;
+    }
+
+    // 占用某格一次
+    public void add(int cell) {
+        int i = indexOf(cell);
+        if (i >= 0) counts[i]++;
+        if (board != null) board.occupy(cell);
+    }
+
+    // 释放某格一次
+    public void remove(int cell) {
+        int i = indexOf(cell);
+        if (i >= 0) counts[i]--;
+        if (board != null) board.release(cell);
+    }
+
+    /**
+     * 只在本网格登记一次占用，不转发给棋盘
+     * 用于从关键帧恢复：棋盘的状态已经单独恢复
+     */
+    void restore(int cell) {
+        int i = indexOf(cell);
+        if (i >= 0) counts[i]++;
+    }
+
+    // 获取某格的占用次数
+    public int count(int cell) {
+        int i = indexOf(cell);
+        return i >= 0 ? counts[i] : 0;
+    }
+
+    // 判断某格是否被占用
+    public boolean contains(int cell) {
+        return count(cell) > 0;
+    }
+}
@@ -0,0 +1,235 @@
+package snake;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 粒子系统
+ *
+ * 所有粒子的属性按列存放在预先分配的基本类型数组中(位置、速度、剩余寿命、颜色下标等)，
+ * 前count个为存活粒子。粒子死亡时用末尾的粒子覆盖它(交换删除)，数组本身从不重新分配，
+ * 因此生成、更新、绘制粒子都不会产生任何垃圾对象。粒子数达到容量上限时新粒子直接丢弃。
+ *
+ * 颜色取自固定调色板，透明度量化为若干级。每种颜色和大小第一次绘制时，把各级透明度的圆
+ * 预先画进一张精灵图，之后每个粒子只是从精灵图中原尺寸复制一块(drawImage)，
+ * 不再逐个走 fillOval 的形状填充和 AlphaComposite 混合路径，绘制时同样不产生垃圾。
+ */
+public class ParticleSystem {
+    // 默认容量
+    private static final int DEFAULT_CAPACITY = 1024;
+    // 透明度级别数
+    private static final int ALPHA_LEVELS = 32;
+    // 使用精灵图绘制的最大粒子大小(像素)，更大的粒子直接 fillOval
+    private static final int MAX_SPRITE_SIZE = 64;
+    // 各级透明度对应的混合模式(第i级为 i/(ALPHA_LEVELS-1))
+    private static final AlphaComposite[] COMPOSITES = new AlphaComposite[ALPHA_LEVELS];
+    static {
+        for (int i = 0; i < ALPHA_LEVELS; i++) {
+            COMPOSITES[i] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) i / (ALPHA_LEVELS - 1));
+        }
+    }
+
+    // 调色板：固定颜色之后是一组随机颜色，供吃食物时的彩色粒子使用
+    public static final int WHITE = 0;
+    public static final int CYAN = 1;
+    private static final int RANDOM_FIRST = 2;  // 第一个随机颜色的下标
+    private static final Color[] PALETTE = new Color[RANDOM_FIRST + 64];
+    static {
+        PALETTE[WHITE] = Color.WHITE;
+        PALETTE[CYAN] = Color.CYAN;
+        Random r = new Random(20240601L);
+        for (int i = RANDOM_FIRST; i < PALETTE.length; i++) {
+            PALETTE[i] = new Color(r.nextFloat(), r.nextFloat(), r.nextFloat());
+        }
+    }
+
+    // 粒子精灵图，下标为 大小 * 调色板长度 + 颜色下标，第一次用到时生成
+    // 每张图把同一颜色和大小的圆按透明度级别从左到右排成一行(第i格为第i级)
+    private static final AtomicReferenceArray<BufferedImage> SPRITES =
+            new AtomicReferenceArray<>((MAX_SPRITE_SIZE + 1) * PALETTE.length);
+
+    private final float[] x;  // 位置x(像素)
+    private final float[] y;  // 位置y(像素)
+    private final float[] vx;  // 速度x(像素/帧)
+    private final float[] vy;  // 速度y(像素/帧)
+    private final int[] life;  // 剩余寿命(帧)
+    private final int[] maxLife;  // 初始寿命(帧)，用于计算透明度
+    private final int[] size;  // 大小(像素)
+    private final int[] color;  // 调色板下标
+    private int count;  // 存活粒子数
+
+    public ParticleSystem() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 最多同时存在的粒子数
+     */
+    public ParticleSystem(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        life = new int[capacity];
+        maxLife = new int[capacity];
+        size = new int[capacity];
+        color = new int[capacity];
+    }
+
+    /**
+     * 随机取一个调色板中的彩色颜色下标
+     * @param rand 随机数生成器
+     */
+    public static int randomColor(Random rand) {
+        return RANDOM_FIRST + rand.nextInt(PALETTE.length - RANDOM_FIRST);
+    }
+
+    /**
+     * 生成一个粒子，已满时忽略
+     * @param px 位置x(像素)
+     * @param py 位置y(像素)
+     * @param pvx 速度x(像素/帧)
+     * @param pvy 速度y(像素/帧)
+     * @param colorIndex 调色板下标
+     * @param psize 大小(像素)
+     * @param plife 寿命(帧)
+     */
+    public void spawn(double px, double py, double pvx, double pvy, int colorIndex, int psize, int plife) {
+        if (count == x.length || plife <= 0) return;
+        int i = count++;
+        x[i] = (float) px;
+        y[i] = (float) py;
+        vx[i] = (float) pvx;
+        vy[i] = (float) pvy;
+        color[i] = colorIndex;
+        size[i] = psize;
+        life[i] = plife;
+        maxLife[i] = plife;
+    }
+
+    // 更新所有粒子一帧，并把死亡的粒子用末尾的粒子覆盖
+    public void update() {
+        int i = 0;
+        while (i < count) {
+            if (--life[i] <= 0) {
+                int last = --count;
+                x[i] = x[last];
+                y[i] = y[last];
+                vx[i] = vx[last];
+                vy[i] = vy[last];
+                life[i] = life[last];
+                maxLife[i] = maxLife[last];
+                size[i] = size[last];
+                color[i] = color[last];
+                // 换过来的粒子还没有更新，留在原位再处理一次
+                continue;
+            }
+            x[i] += vx[i];
+            y[i] += vy[i];
+            i++;
+        }
+    }
+
+    /**
+     * 绘制所有粒子，透明度随剩余寿命线性减小
+     * 每个粒子从对应颜色和大小的精灵图中复制当前透明度级别的一格，
+     * 绘制完成后恢复原来的颜色和混合模式
+     */
+    public void draw(Graphics2D g) {
+        int n = count;
+        if (n == 0) return;
+        Composite oldComposite = g.getComposite();
+        Color oldColor = g.getColor();
+        g.setComposite(AlphaComposite.SrcOver);
+        int currentLevel = -1;  // 超大粒子当前使用的混合模式级别，-1表示SrcOver
+        int currentColor = -1;
+        int currentKey = -1;
+        BufferedImage sheet = null;
+        for (int i = 0; i < n; i++) {
+            int level = life[i] * (ALPHA_LEVELS - 1) / maxLife[i];
+            if (level <= 0) continue;
+            int s = size[i];
+            int px = (int) x[i];
+            int py = (int) y[i];
+            if (s <= MAX_SPRITE_SIZE) {
+                int key = s * PALETTE.length + color[i];
+                if (key != currentKey) {
+                    sheet = sprite(s, color[i]);
+                    currentKey = key;
+                }
+                if (currentLevel != -1) {
+                    g.setComposite(AlphaComposite.SrcOver);
+                    currentLevel = -1;
+                }
+                int sx = level * s;
+                g.drawImage(sheet, px, py, px + s, py + s, sx, 0, sx + s, s, null);
+            } else {
+                // 超大粒子很少见，直接按透明度填充
+                if (level != currentLevel) {
+                    g.setComposite(COMPOSITES[level]);
+                    currentLevel = level;
+                }
+                if (color[i] != currentColor) {
+                    g.setColor(PALETTE[color[i]]);
+                    currentColor = color[i];
+                }
+                g.fillOval(px, py, s, s);
+            }
+        }
+        g.setComposite(oldComposite);
+        g.setColor(oldColor);
+    }
+
+    // 获取(必要时生成)指定大小和颜色的精灵图，多个线程同时生成时结果相同，保留哪一张都可以
+    private static BufferedImage sprite(int psize, int colorIndex) {
+        int key = psize * PALETTE.length + colorIndex;
+        BufferedImage sheet = SPRITES.get(key);
+        if (sheet == null) {
+            sheet = new BufferedImage(psize * ALPHA_LEVELS, psize, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = sheet.createGraphics();
+            try {
+                g.setColor(PALETTE[colorIndex]);
+                for (int level = 1; level < ALPHA_LEVELS; level++) {
+                    g.setComposite(COMPOSITES[level]);
+                    g.fillOval(level * psize, 0, psize, psize);
+                }
+            } finally {
+                g.dispose();
+            }
+            SPRITES.set(key, sheet);
+        }
+        return sheet;
+    }
+
+    /**
+     * 把所有存活粒子复制到另一个粒子系统(覆盖其原有内容)，超出对方容量的部分丢弃
+     * @param dst 目标粒子系统
+     */
+    public void copyTo(ParticleSystem dst) {
+        int n = Math.min(count, dst.x.length);
+        System.arraycopy(x, 0, dst.x, 0, n);
+        System.arraycopy(y, 0, dst.y, 0, n);
+        System.arraycopy(vx, 0, dst.vx, 0, n);
+        System.arraycopy(vy, 0, dst.vy, 0, n);
+        System.arraycopy(life, 0, dst.life, 0, n);
+        System.arraycopy(maxLife, 0, dst.maxLife, 0, n);
+        System.arraycopy(size, 0, dst.size, 0, n);
+        System.arraycopy(color, 0, dst.color, 0, n);
+        dst.count = n;
+    }
+
+    // 清空所有粒子
+    public void clear() {
+        count = 0;
+    }
+
+    // 存活粒子数
+    public int size() {
+        return count;
+    }
+}
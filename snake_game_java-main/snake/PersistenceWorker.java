@@ -0,0 +1,168 @@
+package snake;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 分数异步写入线程
+ *
+ * 游戏循环在结束一局时只把分数记录放入有界队列，立即返回；磁盘变慢、队列写满时记录转入无界的溢出队列，
+ * 提交方永远不会因为磁盘背压而阻塞。
+ * 专门的后台线程取出记录写入 ScoreStore，每次把队列中积压的记录一起写完后只同步一次磁盘(组提交)。
+ * ScoreStore 交给本类后只由后台线程访问；后台线程启动后先把文件中已有的记录按顺序回放给调用方
+ * (例如用于建立排行榜)，启动阶段不需要在调用线程中扫描历史记录。
+ * 注册的关闭钩子会在JVM退出(包括菜单中按Q调用 System.exit)时写完队列中剩余的记录并同步、关闭文件。
+ */
+public class PersistenceWorker {
+    private static final int QUEUE_CAPACITY = 256;  // 队列容量
+    private static final int MAX_BATCH = 64;  // 每批最多写入的记录数
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;  // 关闭时最多等待的时间
+
+    // 一条待写入的分数记录
+    private static final class Entry {
+        final long time;
+        final GameMode mode;
+        final int score;
+        final int durationSec;
+
+        Entry(long time, GameMode mode, int score, int durationSec) {
+            this.time = time;
+            this.mode = mode;
+            this.score = score;
+            this.durationSec = durationSec;
+        }
+    }
+
+    // 通知后台线程写完剩余记录后退出
+    private static final Entry STOP = new Entry(0, null, 0, 0);
+
+    private final ScoreStore store;
+    private final ScoreStore.Visitor history;  // 接收已有记录的回调，可以为null
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    // 有界队列满时的溢出队列；非空期间新记录也放这里，保证按提交顺序写入
+    private final ConcurrentLinkedQueue<Entry> overflow = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean closed = false;
+
+    /**
+     * 创建并启动后台线程，同时注册关闭钩子
+     * @param store 分数文件，之后只由后台线程访问
+     * @param history 在后台线程中接收文件中已有的记录，可以为null
+     */
+    public PersistenceWorker(ScoreStore store, ScoreStore.Visitor history) {
+        this.store = store;
+        this.history = history;
+        this.thread = new Thread(this::run, "score-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "score-flush"));
+    }
+
+    /**
+     * 提交一条分数记录(不等待写入完成，也从不阻塞)
+     * 队列满时放入溢出队列，由后台线程随后写入，记录不会丢失
+     */
+    public void submit(long time, GameMode mode, int score, int durationSec) {
+        if (closed) return;
+        enqueue(new Entry(time, mode, score, durationSec));
+    }
+
+    // 放入有界队列，满了(或溢出队列中还有更早的记录)时放入溢出队列
+    private void enqueue(Entry e) {
+        if (!overflow.isEmpty() || !queue.offer(e)) {
+            overflow.add(e);
+        }
+    }
+
+    /**
+     * 写完队列中已有的记录、同步并关闭文件，之后提交的记录被忽略
+     * 可以重复调用
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        enqueue(STOP);
+        try {
+            thread.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 后台线程：逐批取出记录写入并同步
+    private void run() {
+        List<Entry> batch = new ArrayList<>(MAX_BATCH);
+        boolean stopping = false;
+        try {
+            // 回放已有记录(之后提交的记录还在队列中，不会重复)
+            if (history != null) {
+                try {
+                    store.forEach(history);
+                } catch (IOException e) {
+                    System.out.println("读取分数文件失败: " + e.getMessage());
+                }
+            }
+            while (!stopping) {
+                // 溢出队列只在有界队列满时才会有记录，所以有界队列为空时可以放心阻塞等待
+                Entry first = overflow.isEmpty() ? queue.take() : queue.poll();
+                if (first != null) batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - batch.size());
+                Entry spilled;
+                while (batch.size() < MAX_BATCH && (spilled = overflow.poll()) != null) {
+                    batch.add(spilled);
+                }
+                for (Entry entry : batch) {
+                    if (entry == STOP) {
+                        stopping = true;
+                    } else {
+                        append(entry);
+                    }
+                }
+                batch.clear();
+                sync();
+            }
+            // 与关闭同时提交、排在停止标记之后的记录
+            queue.drainTo(batch);
+            Entry e;
+            while ((e = overflow.poll()) != null) {
+                batch.add(e);
+            }
+            if (!batch.isEmpty()) {
+                for (Entry entry : batch) {
+                    if (entry != STOP) append(entry);
+                }
+                sync();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                store.close();
+            } catch (IOException e) {
+                System.out.println("关闭分数文件失败: " + e.getMessage());
+            }
+        }
+    }
+
+    private void append(Entry e) {
+        try {
+            store.append(e.time, e.mode, e.score, e.durationSec);
+        } catch (IOException ex) {
+            System.out.println("写入分数文件失败: " + ex.getMessage());
+        }
+    }
+
+    private void sync() {
+        try {
+            store.sync();
+        } catch (IOException e) {
+            System.out.println("同步分数文件失败: " + e.getMessage());
+        }
+    }
+}
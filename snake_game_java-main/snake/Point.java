@@ -1,6 +1,10 @@
+package snake;
+
 /**
- * 表示二维平面上的一个点，包含x和y坐标
+ * 表示二维平面上的一个点，包含x和y坐标(像素)
  * 提供基本的点操作和几何判断方法
+ *
+ * 模拟核心内部使用打包的格子坐标(见Cell)，本类只作为界面层的像素坐标适配器
  */
 public class Point {
     private int x; // x坐标
@@ -25,6 +29,24 @@ public class Point {
         this.y = p.getY();
     }
 
+    /**
+     * 由格子坐标创建对应格子左上角的像素点
+     * @param cell 格子坐标(见Cell)
+     * @return 新的像素点
+     */
+    public static Point fromCell(int cell) {
+        return new Point(Cell.toPixelX(cell), Cell.toPixelY(cell));
+    }
+
+    /**
+     * 换算为所在的格子坐标
+     * @return 打包的格子坐标(见Cell)
+     */
+    public int toCell() {
+        return Cell.of(Math.floorDiv(x - Simulation.OFFSET_X, Simulation.GRID_SIZE),
+                Math.floorDiv(y - Simulation.OFFSET_Y, Simulation.GRID_SIZE));
+    }
+
     /**
      * 按照指定方向和距离移动点
      * @param d 移动方向(UP/DOWN/LEFT/RI可扩展性与模块化设计GHT)
@@ -0,0 +1,115 @@
+package snake;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 一帧的渲染快照
+ *
+ * 游戏循环线程在每一步结束后把绘制需要的全部状态复制到快照中，再通过 TripleBuffer 发布，
+ * 渲染线程(EDT或主动渲染)只读取快照，不再直接访问正在被修改的 Simulation 和粒子系统。
+ * 快照对象会被反复复用：数组只在蛇变长、障碍物变多时才扩容，平时复制不分配内存。
+ */
+public class RenderSnapshot {
+    GameStatus status;  // 游戏状态
+    GameMode mode;  // 游戏模式
+    boolean hasWorld;  // 是否已经开始过一局(没有时只能绘制菜单)
+    int points;  // 当前分数
+    int best;  // 当前模式最高分
+    int speedUpLevel;  // 持续加速等级
+    boolean boardFull;  // 棋盘是否已满
+    long startTime;  // 本局开始时间(毫秒)
+    int beatPercent;  // 本局分数超过了百分之多少的历史对局，没有数据时为-1
+    boolean bgmOn;  // 背景音乐是否开启
+
+    int apple = Cell.NONE;  // 苹果格子
+    int burger = Cell.NONE;  // 汉堡格子
+    int shrinkItem = Cell.NONE;  // 缩短道具格子
+
+    int[] snake = new int[64];  // 玩家蛇各节格子(蛇头在前)
+    int snakeLength;  // 玩家蛇节数
+    int[] aiCells = new int[256];  // 所有AI蛇的格子依次排列(每条蛇头在前)
+    int[] aiStart = new int[8];  // 第i条AI蛇在aiCells中的起始位置，aiStart[aiCount]为总格子数
+    int aiCount;  // AI蛇条数
+
+    int[] obstacles = new int[16];  // 障碍物格子
+    boolean[] obstacleMoving = new boolean[16];  // 障碍物是否为移动障碍物
+    int obstacleCount;  // 障碍物数量
+
+    final ParticleSystem particles = new ParticleSystem();  // 粒子
+
+    /**
+     * 从当前游戏状态复制快照
+     * @param sim 当前模拟，尚未开始游戏时为null
+     * @param status 游戏状态
+     * @param mode 游戏模式
+     * @param best 当前模式最高分
+     * @param startTime 本局开始时间
+     * @param beatPercent 本局分数超过了百分之多少的历史对局，没有数据时为-1
+     * @param bgmOn 背景音乐是否开启
+     * @param effects 粒子系统
+     */
+    void capture(Simulation sim, GameStatus status, GameMode mode, int best, long startTime,
+                 int beatPercent, boolean bgmOn, ParticleSystem effects) {
+        this.status = status;
+        this.mode = mode;
+        this.best = best;
+        this.startTime = startTime;
+        this.beatPercent = beatPercent;
+        this.bgmOn = bgmOn;
+        effects.copyTo(particles);
+
+        hasWorld = sim != null;
+        if (sim == null) return;
+        points = sim.getPoints();
+        speedUpLevel = sim.getSpeedUpLevel();
+        boardFull = sim.isBoardFull();
+        apple = sim.getApple();
+        burger = sim.getBurger();
+        shrinkItem = sim.getShrinkItem();
+
+        Snake s = sim.getSnake();
+        snake = ensureCapacity(snake, s.getTailSize() + 1);
+        snakeLength = s.copyTo(snake, 0);
+
+        aiCount = 0;
+        aiStart[0] = 0;
+        if (sim.getAISnake() != null) addAISnake(sim.getAISnake());
+        List<Snake> arena = sim.getArenaSnakes();
+        for (int i = 0, n = arena.size(); i < n; i++) {
+            addAISnake(arena.get(i));
+        }
+
+        List<Obstacle> list = sim.getObstacles();
+        int n = list.size();
+        if (obstacles.length < n) {
+            obstacles = new int[Math.max(n, obstacles.length * 2)];
+            obstacleMoving = new boolean[obstacles.length];
+        }
+        for (int i = 0; i < n; i++) {
+            Obstacle o = list.get(i);
+            obstacles[i] = o.getCell();
+            obstacleMoving[i] = o.getType() == ObstacleType.MOVING;
+        }
+        obstacleCount = n;
+    }
+
+    // 追加一条AI蛇的格子
+    private void addAISnake(Snake ai) {
+        int start = aiStart[aiCount];
+        aiCells = growCapacity(aiCells, start + ai.getTailSize() + 1);
+        aiStart = growCapacity(aiStart, aiCount + 2);
+        aiStart[aiCount + 1] = start + ai.copyTo(aiCells, start);
+        aiCount++;
+    }
+
+    // 数组容量不足时按两倍扩容(保留原内容)
+    private static int[] growCapacity(int[] a, int n) {
+        return a.length >= n ? a : Arrays.copyOf(a, Math.max(n, a.length * 2));
+    }
+
+    // 数组容量不足时按两倍扩容(不保留原内容)
+    private static int[] ensureCapacity(int[] a, int n) {
+        return a.length >= n ? a : new int[Math.max(n, a.length * 2)];
+    }
+}
@@ -0,0 +1,168 @@
+package snake;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 一局游戏的录像
+ *
+ * 模拟本身是确定性的(种子固定的 GameRandom，AI决策与线程数无关)，
+ * 所以录像只需要保存种子和玩家每帧的输入变化，再加上每隔固定帧数的完整关键帧，
+ * 回放时从最近的关键帧恢复后最多推进一个关键帧间隔就能到达任意一帧。
+ *
+ * 文件格式(整体gzip压缩)：
+ *   魔数、版本、模式序号、种子、关键帧间隔、总帧数
+ *   输入数：每条为与上一条的帧号差(变长整数) + 输入编码(1字节)
+ *   关键帧数：每个为帧号(long) + 长度(int) + Simulation.writeState 的数据
+ * 输入编码：低3位为转向(0表示没有转向，否则为 Direction 序号+1)，第4位为是否加速。
+ * 只有有转向或加速状态变化的帧才会记录一条输入，加速状态在两条输入之间保持不变。
+ */
+public class Replay {
+    private static final int MAGIC = 0x534E4B52;  // "SNKR"
+    private static final int VERSION = 1;
+    private static final int ACCELERATE_BIT = 8;
+
+    final GameMode mode;  // 游戏模式
+    final long seed;  // 随机种子
+    final int keyframeInterval;  // 关键帧间隔(帧)
+    final long totalTicks;  // 总帧数
+    final int[] inputTicks;  // 各条输入所在的帧号(递增)
+    final byte[] inputCodes;  // 各条输入的编码
+    final int inputCount;  // 输入条数
+    final long[] keyframeTicks;  // 各关键帧所在的帧号(递增，第一个为0)
+    final byte[][] keyframes;  // 各关键帧的数据
+
+    Replay(GameMode mode, long seed, int keyframeInterval, long totalTicks,
+           int[] inputTicks, byte[] inputCodes, int inputCount, long[] keyframeTicks, byte[][] keyframes) {
+        this.mode = mode;
+        this.seed = seed;
+        this.keyframeInterval = keyframeInterval;
+        this.totalTicks = totalTicks;
+        this.inputTicks = inputTicks;
+        this.inputCodes = inputCodes;
+        this.inputCount = inputCount;
+        this.keyframeTicks = keyframeTicks;
+        this.keyframes = keyframes;
+    }
+
+    // 编码一帧的输入
+    static byte encode(Direction turn, boolean accelerate) {
+        int code = turn == null ? 0 : turn.ordinal() + 1;
+        return (byte) (accelerate ? code | ACCELERATE_BIT : code);
+    }
+
+    // 输入编码中的转向，没有转向时为null
+    static Direction turnOf(byte code) {
+        int d = code & 7;
+        return d == 0 ? null : Direction.values()[d - 1];
+    }
+
+    // 输入编码中的加速状态
+    static boolean accelerateOf(byte code) {
+        return (code & ACCELERATE_BIT) != 0;
+    }
+
+    // 从关键帧恢复模拟
+    Simulation restoreKeyframe(int k) throws IOException {
+        return Simulation.readState(new DataInputStream(new ByteArrayInputStream(keyframes[k])));
+    }
+
+    public GameMode getMode() { return mode; }
+
+    public long getSeed() { return seed; }
+
+    public long getTotalTicks() { return totalTicks; }
+
+    public int getKeyframeCount() { return keyframes.length; }
+
+    public int getInputCount() { return inputCount; }
+
+    // 写入文件
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeByte(mode.ordinal());
+            out.writeLong(seed);
+            out.writeInt(keyframeInterval);
+            out.writeLong(totalTicks);
+
+            out.writeInt(inputCount);
+            int last = 0;
+            for (int i = 0; i < inputCount; i++) {
+                writeVarInt(out, inputTicks[i] - last);
+                out.writeByte(inputCodes[i]);
+                last = inputTicks[i];
+            }
+
+            out.writeInt(keyframes.length);
+            for (int k = 0; k < keyframes.length; k++) {
+                out.writeLong(keyframeTicks[k]);
+                out.writeInt(keyframes[k].length);
+                out.write(keyframes[k]);
+            }
+        }
+    }
+
+    // 从文件读取
+    public static Replay load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("不是有效的录像文件");
+            }
+            GameMode mode = GameMode.values()[in.readByte()];
+            long seed = in.readLong();
+            int interval = in.readInt();
+            long totalTicks = in.readLong();
+
+            int inputCount = in.readInt();
+            int[] ticks = new int[inputCount];
+            byte[] codes = new byte[inputCount];
+            int last = 0;
+            for (int i = 0; i < inputCount; i++) {
+                last += readVarInt(in);
+                ticks[i] = last;
+                codes[i] = in.readByte();
+            }
+
+            int keyframeCount = in.readInt();
+            if (keyframeCount == 0) throw new IOException("录像中没有关键帧");
+            long[] keyframeTicks = new long[keyframeCount];
+            byte[][] keyframes = new byte[keyframeCount][];
+            for (int k = 0; k < keyframeCount; k++) {
+                keyframeTicks[k] = in.readLong();
+                keyframes[k] = new byte[in.readInt()];
+                in.readFully(keyframes[k]);
+            }
+            return new Replay(mode, seed, interval, totalTicks, ticks, codes, inputCount, keyframeTicks, keyframes);
+        }
+    }
+
+    // 每字节7位的变长整数(帧号差通常很小，大多只占1字节)
+    private static void writeVarInt(DataOutputStream out, int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int v = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+    }
+}
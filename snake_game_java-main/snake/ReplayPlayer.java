@@ -0,0 +1,157 @@
+package snake;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 录像播放器
+ *
+ * 从关键帧恢复模拟并按录像中的输入逐帧推进。跳转到任意一帧时先找到不晚于该帧的最近关键帧，
+ * 再最多推进一个关键帧间隔，不需要从第0帧重新模拟。
+ *
+ * 用法: java -cp build/libs/snake_game_java.jar snake.ReplayPlayer 录像文件 [--seek 帧号] [--verify]
+ *   --seek N   跳转到第N帧并输出当时的局面
+ *   --verify   顺序回放整局，并在随机的若干帧上检查跳转得到的状态与顺序回放完全一致
+ */
+public class ReplayPlayer {
+    private final Replay replay;
+    private Simulation sim;  // 当前模拟
+    private int nextInput;  // 下一条未使用的输入
+    private boolean accelerate;  // 当前的加速状态
+
+    public ReplayPlayer(Replay replay) throws IOException {
+        this.replay = replay;
+        seek(0);
+    }
+
+    // 当前模拟(只读使用，继续推进请调用 step)
+    public Simulation getSimulation() {
+        return sim;
+    }
+
+    // 当前帧号
+    public long getTick() {
+        return sim.getTickCount();
+    }
+
+    /**
+     * 推进一帧
+     * @return 是否推进了(已到录像末尾或本局已结束时返回false)
+     */
+    public boolean step() {
+        long tick = sim.getTickCount();
+        if (sim.isOver() || tick >= replay.totalTicks) return false;
+        Direction turn = null;
+        if (nextInput < replay.inputCount && replay.inputTicks[nextInput] == tick) {
+            byte code = replay.inputCodes[nextInput++];
+            turn = Replay.turnOf(code);
+            accelerate = Replay.accelerateOf(code);
+        }
+        sim.tick(turn, accelerate);
+        return true;
+    }
+
+    /**
+     * 跳转到指定帧(超过总帧数时停在末尾)
+     * 耗时与关键帧间隔成正比，与跳转目标离开头多远无关
+     */
+    public void seek(long tick) throws IOException {
+        // 不晚于目标的最近关键帧
+        int k = Arrays.binarySearch(replay.keyframeTicks, tick);
+        if (k < 0) k = Math.max(0, -k - 2);
+        sim = replay.restoreKeyframe(k);
+
+        // 该关键帧之后的第一条输入，以及关键帧时的加速状态
+        long start = replay.keyframeTicks[k];
+        int lo = 0;
+        int hi = replay.inputCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (replay.inputTicks[mid] < start) lo = mid + 1;
+            else hi = mid;
+        }
+        nextInput = lo;
+        accelerate = lo > 0 && Replay.accelerateOf(replay.inputCodes[lo - 1]);
+
+        while (sim.getTickCount() < tick && step()) {
+            // 推进到目标帧
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("用法: java -cp build/libs/snake_game_java.jar snake.ReplayPlayer 录像文件 [--seek 帧号] [--verify]");
+            System.exit(1);
+        }
+        Replay replay = Replay.load(Paths.get(args[0]));
+        System.out.printf("模式: %s  种子: %d  总帧数: %d  输入: %d条  关键帧: %d个(间隔%d帧)%n",
+                replay.mode, replay.seed, replay.totalTicks, replay.inputCount, replay.keyframes.length,
+                replay.keyframeInterval);
+        ReplayPlayer player = new ReplayPlayer(replay);
+
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--seek") && i + 1 < args.length) {
+                long t0 = System.nanoTime();
+                player.seek(Long.parseLong(args[++i]));
+                System.out.printf("跳转到第%d帧用时 %.2fms%n", player.getTick(), (System.nanoTime() - t0) / 1e6);
+                printState(player.getSimulation());
+            } else if (args[i].equals("--verify")) {
+                verify(replay);
+            }
+        }
+
+        player.seek(replay.totalTicks);
+        System.out.print("结束局面: ");
+        printState(player.getSimulation());
+    }
+
+    private static void printState(Simulation sim) {
+        Snake s = sim.getSnake();
+        System.out.printf("帧号: %d  分数: %d  蛇长度: %d  蛇头: (%d,%d)  结束: %b%n", sim.getTickCount(),
+                sim.getPoints(), s.getTailSize() + 1, Cell.col(s.getHeadCell()), Cell.row(s.getHeadCell()),
+                sim.isOver());
+    }
+
+    // 顺序回放时记下若干帧的完整状态，再逐一跳转比对
+    private static void verify(Replay replay) throws IOException {
+        int samples = 32;
+        long[] targets = new long[samples];
+        Random rand = new Random(replay.seed);
+        for (int i = 0; i < samples; i++) {
+            targets[i] = replay.totalTicks == 0 ? 0 : (long) (rand.nextDouble() * (replay.totalTicks + 1));
+        }
+        Arrays.sort(targets);
+
+        byte[][] expected = new byte[samples][];
+        ReplayPlayer sequential = new ReplayPlayer(replay);
+        for (int i = 0; i < samples; i++) {
+            while (sequential.getTick() < targets[i] && sequential.step()) {
+                // 顺序推进
+            }
+            expected[i] = stateOf(sequential.getSimulation());
+        }
+
+        ReplayPlayer seeker = new ReplayPlayer(replay);
+        int mismatches = 0;
+        for (int i = samples - 1; i >= 0; i--) {
+            seeker.seek(targets[i]);
+            if (!Arrays.equals(expected[i], stateOf(seeker.getSimulation()))) {
+                System.out.println("第" + targets[i] + "帧的跳转结果与顺序回放不一致");
+                mismatches++;
+            }
+        }
+        System.out.println(mismatches == 0 ? "校验通过: " + samples + "个跳转点与顺序回放一致"
+                : "校验失败: " + mismatches + "个跳转点不一致");
+        if (mismatches > 0) System.exit(2);
+    }
+
+    private static byte[] stateOf(Simulation sim) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        sim.writeState(new DataOutputStream(buf));
+        return buf.toByteArray();
+    }
+}
@@ -0,0 +1,92 @@
+package snake;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 录像录制器
+ *
+ * 游戏循环在每次调用 Simulation.tick 之前把本帧的输入交给录制器：
+ * 只有转向或加速状态变化时才记下一条输入，每隔固定帧数保存一个完整关键帧。
+ * 平时一帧只做一次比较，不分配内存。
+ */
+public class ReplayRecorder {
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 256;
+
+    private final GameMode mode;
+    private final long seed;
+    private final int keyframeInterval;
+
+    private int[] inputTicks = new int[256];
+    private byte[] inputCodes = new byte[256];
+    private int inputCount = 0;
+    private boolean lastAccelerate = false;  // 上一帧的加速状态
+
+    private final List<Long> keyframeTicks = new ArrayList<>();
+    private final List<byte[]> keyframes = new ArrayList<>();
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 * 1024);  // 关键帧序列化缓冲
+
+    /**
+     * @param mode 游戏模式
+     * @param seed 创建模拟时使用的种子
+     * @param keyframeInterval 关键帧间隔(帧)
+     */
+    public ReplayRecorder(GameMode mode, long seed, int keyframeInterval) {
+        this.mode = mode;
+        this.seed = seed;
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    /**
+     * 记录一帧的输入，在 sim.tick(turn, accelerate) 之前调用
+     * @param sim 当前模拟(帧号为即将推进的这一帧)
+     * @param turn 本帧的转向输入，没有时为null
+     * @param accelerate 是否加速
+     */
+    public void record(Simulation sim, Direction turn, boolean accelerate) {
+        if (sim.isOver()) return;
+        long tick = sim.getTickCount();
+        if (tick % keyframeInterval == 0) keyframe(sim);
+        if (turn == null && accelerate == lastAccelerate) return;
+
+        if (inputCount == inputTicks.length) {
+            inputTicks = Arrays.copyOf(inputTicks, inputCount * 2);
+            inputCodes = Arrays.copyOf(inputCodes, inputCount * 2);
+        }
+        inputTicks[inputCount] = (int) tick;
+        inputCodes[inputCount] = Replay.encode(turn, accelerate);
+        inputCount++;
+        lastAccelerate = accelerate;
+    }
+
+    // 保存当前完整状态
+    private void keyframe(Simulation sim) {
+        buffer.reset();
+        try {
+            sim.writeState(new DataOutputStream(buffer));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);  // 写入内存不会失败
+        }
+        keyframeTicks.add(sim.getTickCount());
+        keyframes.add(buffer.toByteArray());
+    }
+
+    /**
+     * 结束录制，生成录像
+     * @param sim 本局的模拟(用于确定总帧数)
+     */
+    public Replay finish(Simulation sim) {
+        long[] ticks = new long[keyframeTicks.size()];
+        for (int i = 0; i < ticks.length; i++) {
+            ticks[i] = keyframeTicks.get(i);
+        }
+        return new Replay(mode, seed, keyframeInterval, sim.getTickCount(),
+                Arrays.copyOf(inputTicks, inputCount), Arrays.copyOf(inputCodes, inputCount), inputCount,
+                ticks, keyframes.toArray(new byte[0][]));
+    }
+}
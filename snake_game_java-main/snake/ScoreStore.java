@@ -0,0 +1,235 @@
+package snake;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 二进制分数存储
+ *
+ * 文件由固定大小的文件头和定长记录组成：
+ *   文件头(128字节，内存映射)：魔数、版本、已提交记录数、每个模式的最高分
+ *   记录(每条20字节，只追加)：结束时间(毫秒)、分数、已玩秒数、模式序号
+ * 新的分数只在文件末尾追加一条记录，再原地修改文件头中的记录数和最高分，
+ * 不需要像文本文件那样重写整个文件；启动时只读文件头就能得到各模式最高分。
+ * 记录先写入、文件头后更新，意外中断时末尾多出的半条记录会在下次打开时截掉。
+ *
+ * 模式按 GameMode 的序号存放，新增模式只能加在枚举末尾。
+ * 非线程安全，调用方需要保证同一时间只有一个线程使用。
+ */
+public class ScoreStore implements Closeable {
+    private static final int MAGIC = 0x534E4B53;  // "SNKS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 128;
+    private static final int RECORD_SIZE = 20;
+    private static final int MAX_MODES = 16;  // 文件头中预留的模式数
+
+    // 文件头字段偏移
+    private static final int OFF_MAGIC = 0;
+    private static final int OFF_VERSION = 4;
+    private static final int OFF_COUNT = 8;
+    private static final int OFF_BEST = 16;
+
+    static {
+        if (GameMode.values().length > MAX_MODES) throw new IllegalStateException("文件头中预留的模式数不足");
+    }
+
+    // 旧版文本文件的时间格式
+    private static final DateTimeFormatter LEGACY_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // 遍历记录的回调
+    public interface Visitor {
+        /**
+         * @param time 结束时间(毫秒)
+         * @param mode 游戏模式
+         * @param score 分数
+         * @param durationSec 已玩秒数
+         */
+        void visit(long time, GameMode mode, int score, int durationSec);
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);  // 追加时复用
+    private long count;  // 已提交的记录数
+
+    private ScoreStore(FileChannel channel) throws IOException {
+        this.channel = channel;
+        boolean created = channel.size() == 0;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        if (created) {
+            header.putInt(OFF_MAGIC, MAGIC);
+            header.putInt(OFF_VERSION, VERSION);
+            header.putLong(OFF_COUNT, 0);
+            return;
+        }
+        if (header.getInt(OFF_MAGIC) != MAGIC || header.getInt(OFF_VERSION) != VERSION) {
+            throw new IOException("不是有效的分数文件");
+        }
+        // 以文件头中的记录数为准，截掉未提交的半条记录
+        long complete = (channel.size() - HEADER_SIZE) / RECORD_SIZE;
+        count = Math.min(header.getLong(OFF_COUNT), complete);
+        header.putLong(OFF_COUNT, count);
+        channel.truncate(HEADER_SIZE + count * RECORD_SIZE);
+    }
+
+    /**
+     * 打开分数文件，不存在时创建；新建时如果旧版文本文件存在，把其中的记录一次性导入
+     * @param file 二进制分数文件
+     * @param legacy 旧版 scores.txt，可以为null
+     */
+    public static ScoreStore open(Path file, Path legacy) throws IOException {
+        boolean fresh = !Files.exists(file);
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ScoreStore store;
+        try {
+            store = new ScoreStore(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        if (fresh && legacy != null && Files.exists(legacy)) {
+            store.importLegacy(legacy);
+            store.sync();
+        }
+        return store;
+    }
+
+    /**
+     * 追加一条分数记录，分数超过该模式最高分时同时更新最高分
+     * @return 是否刷新了最高分
+     */
+    public boolean append(long time, GameMode mode, int score, int durationSec) throws IOException {
+        record.clear();
+        record.putLong(time).putInt(score).putInt(durationSec).putInt(mode.ordinal()).flip();
+        long position = HEADER_SIZE + count * RECORD_SIZE;
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        count++;
+        header.putLong(OFF_COUNT, count);
+        return updateBest(mode, score);
+    }
+
+    // 最高分只增不减
+    private boolean updateBest(GameMode mode, int score) {
+        int offset = OFF_BEST + mode.ordinal() * 4;
+        if (score <= header.getInt(offset)) return false;
+        header.putInt(offset, score);
+        return true;
+    }
+
+    // 某个模式的最高分
+    public int getBest(GameMode mode) {
+        return header.getInt(OFF_BEST + mode.ordinal() * 4);
+    }
+
+    // 记录总数
+    public long getRecordCount() {
+        return count;
+    }
+
+    /**
+     * 按写入顺序遍历所有记录
+     * 分块读取，不为每条记录创建对象
+     */
+    public void forEach(Visitor visitor) throws IOException {
+        GameMode[] modes = GameMode.values();
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE * 4096);
+        long position = HEADER_SIZE;
+        long end = HEADER_SIZE + count * RECORD_SIZE;
+        while (position < end) {
+            buf.clear();
+            buf.limit((int) Math.min(buf.capacity(), end - position));
+            while (buf.hasRemaining()) {
+                int n = channel.read(buf, position + buf.position());
+                if (n < 0) throw new IOException("分数文件被截断");
+            }
+            buf.flip();
+            while (buf.remaining() >= RECORD_SIZE) {
+                long time = buf.getLong();
+                int score = buf.getInt();
+                int duration = buf.getInt();
+                int mode = buf.getInt();
+                if (mode >= 0 && mode < modes.length) visitor.visit(time, modes[mode], score, duration);
+            }
+            position += buf.limit();
+        }
+    }
+
+    // 把追加的记录和文件头写到磁盘
+    public void sync() throws IOException {
+        channel.force(false);
+        header.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * 导入旧版文本文件
+     * 分数行形如 "时间: 2024-01-01 12:00:00  分数: 12  模式: 单人模式  已玩时间: 30秒"，
+     * 最高分行形如 "单人模式最高分:12"(最高分可能来自已不在文件中的记录，单独写入文件头)
+     */
+    private void importLegacy(Path legacy) throws IOException {
+        int imported = 0;
+        // 旧文件由 FileWriter 按平台默认编码写入
+        try (BufferedReader reader = new BufferedReader(new FileReader(legacy.toFile()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                int bestAt = line.indexOf("最高分:");
+                if (bestAt > 0) {
+                    GameMode mode = GameMode.fromChineseName(line.substring(0, bestAt));
+                    Integer best = parseInt(line.substring(bestAt + "最高分:".length()));
+                    if (mode != null && best != null) updateBest(mode, best);
+                    continue;
+                }
+                String timeStr = field(line, "时间: ", "  分数:");
+                Integer score = parseInt(field(line, "分数: ", "  模式:"));
+                GameMode mode = GameMode.fromChineseName(field(line, "模式: ", "  已玩时间:"));
+                Integer duration = parseInt(field(line, "已玩时间: ", "秒"));
+                if (timeStr == null || score == null || mode == null) continue;
+                try {
+                    long time = LocalDateTime.parse(timeStr, LEGACY_TIME)
+                            .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    append(time, mode, score, duration != null ? duration : 0);
+                    imported++;
+                } catch (DateTimeParseException ignored) {}
+            }
+        }
+        System.out.println("已从 " + legacy + " 导入 " + imported + " 条分数记录");
+    }
+
+    // 取出 start 和 end 之间的文本，找不到时返回null
+    private static String field(String line, String start, String end) {
+        int from = line.indexOf(start);
+        if (from < 0) return null;
+        from += start.length();
+        int to = line.indexOf(end, from);
+        return to < 0 ? null : line.substring(from, to).trim();
+    }
+
+    private static Integer parseInt(String s) {
+        if (s == null) return null;
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
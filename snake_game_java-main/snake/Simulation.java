@@ -0,0 +1,791 @@
+package snake;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+
+/**
+ * 无界面的游戏模拟核心
+ *
+ * 持有一局游戏的全部世界状态（玩家蛇、AI蛇、苹果、汉堡、缩短道具、障碍物、分数），
+ * 每调用一次 tick() 推进一帧。本类不依赖AWT/Swing，也不加载图片和音频，
+ * 可以脱离窗口和计时器直接高速步进，用于AI评估和压力测试。
+ * 音效、粒子等表现层效果通过 SimulationListener 回调通知界面。
+ */
+public class Simulation {
+    // 游戏区域尺寸(像素)
+    public static final int WIDTH = 760;
+    public static final int HEIGHT = 720;
+    // 网格大小
+    public static final int GRID_SIZE = 20;
+    // 游戏区域的列数和行数
+    public static final int COLS = WIDTH / GRID_SIZE;
+    public static final int ROWS = HEIGHT / GRID_SIZE;
+    // 游戏区域左上角偏移(像素，仅绘制时使用)
+    public static final int OFFSET_X = 20;
+    public static final int OFFSET_Y = 40;
+    // 普通模式速度(毫秒/帧)
+    public static final int BASE_DELAY = 120;
+    // 持续加速模式最低速度
+    public static final int MIN_DELAY = 15;
+
+    private static final int SHRINK_AMOUNT = 1; // 每次缩短的节数
+    // 竞技场模式默认的AI蛇数量
+    public static final int DEFAULT_ARENA_SNAKES = 24;
+    // AI蛇数量不超过该值时在当前线程依次决策，超过时拆分到ForkJoinPool并行决策
+    private static final int ARENA_PARALLEL_THRESHOLD = 8;
+
+    // 当前模式及其开关
+    private final GameMode mode;
+    private final boolean withAISnake;
+    private final boolean isSpeedUpMode;
+    private final boolean isObstacleMode;
+    private final boolean isArenaMode;
+
+    // 随机数生成器（所有生成逻辑共用，便于固定种子复现；状态可保存到关键帧）
+    private final GameRandom rand;
+
+    // 世界状态(位置均为打包的格子坐标，见Cell)
+    private Snake snake;
+    private Snake aiSnake;
+    private int apple = Cell.NONE;
+    private int burger = Cell.NONE;
+    private int shrinkItem = Cell.NONE;
+    private List<Obstacle> obstacles = new ArrayList<>();
+    private int points = 0;
+    // 空闲格子索引：蛇、障碍物和道具占用的格子都会登记在这里
+    private final FreeCellIndex board = new FreeCellIndex();
+    // 障碍物的格子索引(每格的障碍物数量)，移动型障碍物每步都会更新，并同步到board
+    private final OccupancyGrid obstacleGrid = new OccupancyGrid(board);
+    // 移动型障碍物，单独存放以免每帧遍历静态障碍物
+    private List<Obstacle> movingObstacles = new ArrayList<>();
+    // 本帧是否有移动型障碍物撞进了玩家蛇身
+    private boolean obstacleHitSnake = false;
+    private int aiSnakeScore = 0;
+    // AI对战模式中AI蛇的决策策略，默认为寻路规划器
+    private AIStrategy aiStrategy = new AIPlanner();
+    // AI决策时判断格子是否被占用
+    private final IntPredicate blockedCells = this::isBlocked;
+
+    // 竞技场模式的AI蛇(按生成顺序排列，死亡后移除)，以及各自的规划器和本帧决策
+    private final List<Snake> arenaSnakes = new ArrayList<>();
+    private final List<AIPlanner> arenaPlanners = new ArrayList<>();
+    private Direction[] arenaDecisions = new Direction[0];
+    private boolean[] arenaDead = new boolean[0];
+    // 竞技场碰撞判定用：每格的AI蛇头数量和这些蛇下标之和，headStamp等于arenaEpoch时有效
+    private final int[] headCount = new int[COLS * ROWS];
+    private final int[] headIndexSum = new int[COLS * ROWS];
+    private final int[] headStamp = new int[COLS * ROWS];
+    private int arenaEpoch = 0;
+
+    // 持续加速模式相关变量
+    private int speedUpLevel = 0;  // 当前加速等级
+    private int speedUpInterval = 200; // 每200帧加速一次
+    private int speedUpFrameCount = 0;  // 加速帧计数器
+    private int currentDelay = BASE_DELAY;  // 当前延迟时间
+
+    // 无尽障碍模式相关变量
+    private int obstacleInterval = 50; // 每50帧生成一个障碍物
+    private int obstacleFrameCount = 0;  // 障碍物生成帧计数器
+
+    // 结束标记：crashed表示撞墙/撞自己/撞障碍物（需要播放死亡动画）
+    private boolean crashed = false;
+    private boolean over = false;
+    // 棋盘已满，没有空格子可以放苹果
+    private boolean boardFull = false;
+    // 已推进的帧数
+    private long tickCount = 0;
+
+    // 表现层回调
+    private SimulationListener listener = new SimulationListener() {};
+
+    public Simulation(GameMode mode) {
+        this(mode, new GameRandom(), DEFAULT_ARENA_SNAKES);
+    }
+
+    public Simulation(GameMode mode, long seed) {
+        this(mode, new GameRandom(seed), DEFAULT_ARENA_SNAKES);
+    }
+
+    /**
+     * @param mode 游戏模式
+     * @param seed 随机种子
+     * @param arenaSnakes 竞技场模式的AI蛇数量(其他模式忽略)
+     */
+    public Simulation(GameMode mode, long seed, int arenaSnakes) {
+        this(mode, new GameRandom(seed), arenaSnakes);
+    }
+
+    // 只设置模式，不生成任何物体(从关键帧恢复时使用)
+    private Simulation(GameMode mode, GameRandom rand) {
+        this.mode = mode;
+        this.rand = rand;
+        this.withAISnake = mode == GameMode.AI;
+        this.isSpeedUpMode = mode == GameMode.SPEEDUP;
+        this.isObstacleMode = mode == GameMode.OBSTACLE;
+        this.isArenaMode = mode == GameMode.ARENA;
+    }
+
+    private Simulation(GameMode mode, GameRandom rand, int arenaSnakes) {
+        this(mode, rand);
+
+        // 初始化蛇的位置（居中）
+        snake = new Snake(Cell.of(COLS / 2, ROWS / 2), board);
+
+        // 初始化AI蛇
+        if (withAISnake) {
+            aiSnake = new Snake(Cell.of(COLS / 2, ROWS / 2 - 5), board);
+            aiSnake.turn(Direction.RIGHT);
+            aiSnake.setNeedGrowFalse();
+        }
+
+        // 初始化竞技场AI蛇
+        if (isArenaMode) {
+            spawnArenaSnakes(arenaSnakes);
+        }
+    }
+
+    /**
+     * 在随机的空位上生成竞技场AI蛇，每条需要横向连续3个空格(蛇身在蛇头左侧)
+     * 棋盘太挤放不下时少生成几条
+     */
+    private void spawnArenaSnakes(int count) {
+        int attempts = count * 50;
+        while (arenaSnakes.size() < count && attempts-- > 0) {
+            int head = board.randomFree(rand);
+            if (head == Cell.NONE) break;
+            int body1 = Cell.step(head, Direction.LEFT);
+            int body2 = Cell.step(body1, Direction.LEFT);
+            if (!board.isFree(body1) || !board.isFree(body2)) continue;
+            arenaSnakes.add(new Snake(head, board));
+            arenaPlanners.add(new AIPlanner());
+        }
+        arenaDecisions = new Direction[arenaSnakes.size()];
+        arenaDead = new boolean[arenaSnakes.size()];
+    }
+
+    /**
+     * 设置表现层回调
+     * @param listener 监听器，传null表示不需要回调
+     */
+    public void setListener(SimulationListener listener) {
+        this.listener = listener != null ? listener : new SimulationListener() {};
+    }
+
+    /**
+     * 推进一帧
+     * @param turn 本帧玩家的转向输入，没有输入时传null
+     * @param accelerate 玩家是否按住加速键
+     */
+    public void tick(Direction turn, boolean accelerate) {
+        if (over) return;
+        tickCount++;
+
+        // 持续加速模式下的加速逻辑
+        if (isSpeedUpMode) {
+            speedUpFrameCount++;
+            if (speedUpFrameCount >= speedUpInterval) {
+                speedUpFrameCount = 0;
+                if (currentDelay > MIN_DELAY) {
+                    currentDelay -= 5; // 每次加速减少5ms
+                    speedUpLevel++;
+                }
+            }
+        }
+
+        if (turn != null) {
+            snake.turn(turn);
+        }
+        update(accelerate);
+    }
+
+    // 更新游戏状态
+    private void update(boolean accelerate) {
+        snake.move();  // 移动蛇
+
+        // 检查是否吃到苹果或道具
+        checkEatAppleAndItem();
+
+        // 如果有AI蛇，移动AI蛇并确保不越界
+        if (withAISnake && aiSnake != null) {
+            moveAISnake();
+            clampSnakeToBounds(aiSnake);
+        }
+
+        // 竞技场模式：所有AI蛇并行决策后统一移动
+        if (isArenaMode) {
+            decideArenaMoves();
+            applyArenaMoves();
+        }
+
+        // 如果玩家正在加速，额外移动一次
+        if (accelerate) {
+            snake.move();
+            listener.onBoost(snake.getHeadCell(), snake.getDirection());
+            checkEatAppleAndItem();
+        }
+
+        // AI蛇吃苹果逻辑
+        if (withAISnake && aiSnake != null && aiSnake.getHeadCell() == apple) {
+            aiSnake.setNeedGrow();
+            apple = takeItem(apple);
+            spawnApple();
+        }
+
+        // AI蛇吃缩短道具逻辑
+        if (withAISnake && aiSnake != null && aiSnake.getHeadCell() == shrinkItem) {
+            shrinkSnake(aiSnake);
+            shrinkItem = takeItem(shrinkItem);
+            listener.onEat(aiSnake.getHeadCell(), false);
+        }
+
+        // 碰撞检测：玩家与AI蛇
+        if (withAISnake && aiSnake != null) {
+            int result = collidePlayerWith(aiSnake);
+            if (result == AI_EATEN) {
+                aiSnake = null;
+                return;
+            }
+            if (result == PLAYER_DEAD) return;
+        }
+
+        // 竞技场模式：AI蛇之间的碰撞，以及玩家与每条AI蛇的碰撞
+        if (isArenaMode) {
+            resolveArenaCollisions();
+            if (over) return;
+        }
+
+        // 如果苹果被吃掉，生成新苹果
+        if (apple == Cell.NONE) {
+            spawnApple();
+            if (apple == Cell.NONE) {
+                // 棋盘已满，本局结束
+                boardFull = true;
+                over = true;
+                return;
+            }
+        }
+
+        // 随机生成缩短道具
+        if (shrinkItem == Cell.NONE && rand.nextDouble() < 0.005) {
+            spawnShrinkItem();
+        }
+
+        // 障碍物模式下的障碍物生成和移动
+        if (isObstacleMode) {
+            obstacleFrameCount++;
+            if (obstacleFrameCount >= obstacleInterval) {
+                obstacleFrameCount = 0;
+                spawnObstacle();  // 生成新障碍物
+            }
+
+            moveObstacles();
+        }
+
+        // 随机生成汉堡
+        if (burger == Cell.NONE && rand.nextDouble() < 0.01) {
+            spawnBurger();
+        }
+
+        // 检查游戏是否结束
+        checkForGameOver();
+    }
+
+    // collidePlayerWith 的结果
+    private static final int NO_COLLISION = 0;  // 没有碰撞
+    private static final int AI_EATEN = 1;  // AI蛇被玩家吞噬(已从棋盘移除)
+    private static final int PLAYER_DEAD = 2;  // 玩家死亡(已设置over)
+
+    /**
+     * 玩家与一条AI蛇的碰撞判定，并执行吞噬、加分等结果
+     * @return NO_COLLISION、AI_EATEN 或 PLAYER_DEAD
+     */
+    private int collidePlayerWith(Snake ai) {
+        // 玩家蛇头碰到AI蛇身体
+        if (ai.tailContains(snake.getHeadCell(), 1)) {
+            over = true;
+            return PLAYER_DEAD;
+        }
+
+        // 头对头碰撞吞噬机制
+        if (snake.getHeadCell() == ai.getHeadCell()) {
+            int playerLen = snake.getTailSize() + 1;
+            int aiLen = ai.getTailSize() + 1;
+            if (playerLen > aiLen) {
+                // 玩家蛇更长，吞噬AI蛇
+                for (int i = 0; i < aiLen; i++) snake.setNeedGrow();
+                points += aiLen;
+                ai.removeFromBoard();
+                return AI_EATEN;
+            } else if (aiLen > playerLen) {
+                // AI蛇更长，游戏结束
+                for (int i = 0; i < playerLen; i++) ai.setNeedGrow();
+                aiSnakeScore = aiLen + playerLen;
+                over = true;
+                return PLAYER_DEAD;
+            }
+        }
+
+        // AI蛇头碰到玩家蛇身体
+        if (snake.tailContains(ai.getHeadCell(), 1)) {
+            int aiLen = ai.getTailSize() + 1;
+            for (int j = 0; j < aiLen; j++) snake.setNeedGrow();
+            points += aiLen;
+            ai.removeFromBoard();
+            return AI_EATEN;
+        }
+        return NO_COLLISION;
+    }
+
+    /**
+     * 竞技场决策阶段：每条AI蛇根据同一份只读的世界状态(本帧移动前)独立计算下一步方向
+     * 决策之间没有依赖，AI蛇较多时拆分成多个任务在ForkJoinPool上并行执行；
+     * 每条蛇使用自己的规划器，结果写入各自的下标，因此结果与执行顺序和线程数无关
+     */
+    private void decideArenaMoves() {
+        int n = arenaSnakes.size();
+        if (n == 0) return;
+        if (n <= ARENA_PARALLEL_THRESHOLD) {
+            decideArenaRange(0, n);
+        } else {
+            ForkJoinPool.commonPool().invoke(new ArenaDecisionTask(0, n));
+        }
+    }
+
+    // 计算下标[from, to)范围内AI蛇的决策
+    private void decideArenaRange(int from, int to) {
+        for (int i = from; i < to; i++) {
+            Snake s = arenaSnakes.get(i);
+            arenaDecisions[i] = arenaPlanners.get(i).decide(s.getHeadCell(), s.getTailSize() + 1,
+                    s.getDirection(), apple, blockedCells);
+        }
+    }
+
+    // 并行决策任务：范围较大时一分为二
+    private class ArenaDecisionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        ArenaDecisionTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ARENA_PARALLEL_THRESHOLD) {
+                decideArenaRange(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ArenaDecisionTask(from, mid), new ArenaDecisionTask(mid, to));
+        }
+    }
+
+    // 移除标记为死亡的竞技场AI蛇，保持其余蛇的先后顺序
+    private void removeDeadArenaSnakes(boolean[] dead) {
+        int n = arenaSnakes.size();
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            if (dead[i]) {
+                arenaSnakes.get(i).removeFromBoard();
+                continue;
+            }
+            arenaSnakes.set(kept, arenaSnakes.get(i));
+            arenaPlanners.set(kept, arenaPlanners.get(i));
+            kept++;
+        }
+        arenaSnakes.subList(kept, n).clear();
+        arenaPlanners.subList(kept, n).clear();
+    }
+
+    /**
+     * 将格子坐标换算为棋盘数组下标
+     * @return 数组下标，超出游戏区域时返回-1
+     */
+    private static int indexOf(int cell) {
+        return Cell.inBounds(cell) ? Cell.row(cell) * COLS + Cell.col(cell) : -1;
+    }
+
+    // 竞技场执行阶段：按下标顺序让所有AI蛇按决策移动，并吃掉脚下的苹果和缩短道具
+    private void applyArenaMoves() {
+        for (int i = 0; i < arenaSnakes.size(); i++) {
+            Snake s = arenaSnakes.get(i);
+            s.forceTurn(arenaDecisions[i]);
+            s.move();
+            if (s.getHeadCell() == apple) {
+                s.setNeedGrow();
+                apple = takeItem(apple);
+                spawnApple();
+            }
+            if (s.getHeadCell() == shrinkItem) {
+                shrinkSnake(s);
+                shrinkItem = takeItem(shrinkItem);
+                listener.onEat(s.getHeadCell(), false);
+            }
+        }
+    }
+
+    /**
+     * 竞技场碰撞判定，全部AI蛇移动完成后统一进行：
+     * 1. 先根据移动后的局面判定每条AI蛇的生死(撞墙、撞障碍物、撞自己、撞其他AI蛇)，
+     *    两条AI蛇头对头时较长的一方存活并增长，一样长则同归于尽
+     * 2. 再统一移除死亡的AI蛇，判定结果与处理顺序无关
+     * 3. 最后按下标顺序处理玩家与每条存活AI蛇的碰撞(规则同AI对战模式)
+     */
+    private void resolveArenaCollisions() {
+        int n = arenaSnakes.size();
+        if (n == 0) return;
+
+        // 登记所有AI蛇头的位置
+        int stamp = ++arenaEpoch;
+        for (int i = 0; i < n; i++) {
+            int idx = indexOf(arenaSnakes.get(i).getHeadCell());
+            if (idx < 0) continue;
+            if (headStamp[idx] != stamp) {
+                headStamp[idx] = stamp;
+                headCount[idx] = 0;
+                headIndexSum[idx] = 0;
+            }
+            headCount[idx]++;
+            headIndexSum[idx] += i;
+        }
+
+        boolean[] dead = arenaDead;
+        for (int i = 0; i < n; i++) {
+            Snake s = arenaSnakes.get(i);
+            int head = s.getHeadCell();
+            int idx = indexOf(head);
+            dead[i] = false;
+            if (idx < 0 || obstacleGrid.contains(head) || s.tailContains(head, 0)) {
+                dead[i] = true;  // 撞墙、撞障碍物或撞自己
+                continue;
+            }
+
+            // 该格被其他AI蛇占用的节数：棋盘总数减去自己、玩家、障碍物和道具
+            int others = board.count(head) - s.count(head) - snake.count(head) - obstacleGrid.count(head)
+                    - (head == apple ? 1 : 0) - (head == burger ? 1 : 0) - (head == shrinkItem ? 1 : 0);
+            if (others <= 0) continue;
+
+            if (others == 1 && headCount[idx] == 2) {
+                // 恰好与另一条AI蛇头对头：较长者存活并增长，一样长同归于尽
+                Snake rival = arenaSnakes.get(headIndexSum[idx] - i);
+                int myLen = s.getTailSize() + 1;
+                int rivalLen = rival.getTailSize() + 1;
+                if (myLen > rivalLen) {
+                    s.setNeedGrow();
+                } else {
+                    dead[i] = true;
+                }
+            } else {
+                dead[i] = true;  // 撞进其他AI蛇的身体，或多条蛇挤进同一格
+            }
+        }
+
+        // 统一移除死亡的AI蛇
+        removeDeadArenaSnakes(dead);
+
+        // 玩家与每条AI蛇的碰撞
+        for (int i = 0; i < arenaSnakes.size(); i++) {
+            int result = collidePlayerWith(arenaSnakes.get(i));
+            if (result == PLAYER_DEAD) return;
+            if (result == AI_EATEN) {
+                arenaSnakes.remove(i);
+                arenaPlanners.remove(i);
+                i--;
+            }
+        }
+    }
+
+    // 移动所有移动型障碍物，并检查是否撞进了蛇身(包级可见，供基准测试直接调用)
+    void moveObstacles() {
+        for (Obstacle o : movingObstacles) {
+            obstacleGrid.remove(o.getCell());
+            o.move();
+            obstacleGrid.add(o.getCell());
+            o.bounceIfNeeded(0, 0, COLS - 1, ROWS - 1);
+            if (snake.contains(o.getCell())) obstacleHitSnake = true;
+        }
+    }
+
+    // 检查游戏是否结束(包级可见，供基准测试直接调用)
+    void checkForGameOver() {
+        int head = snake.getHeadCell();
+
+        // 检查是否撞墙
+        // 蛇身的每一节都曾是蛇头，越界当帧就会结束，所以只需检查蛇头和第1节(加速时一帧移动两步)
+        boolean hitBoundary = !Cell.inBounds(head);
+        if (snake.getTailSize() > 0 && !Cell.inBounds(snake.getTailCell(0))) {
+            hitBoundary = true;
+        }
+
+        // 检查是否撞到自己
+        boolean ateItself = snake.tailContains(head, 2);
+
+        // 检查是否撞到障碍物
+        // 新的重叠只可能来自本帧进入的蛇头/第1节，或本帧移动进蛇身的障碍物，
+        // 因此只查询这两格的障碍物索引，再加上移动时记录的标记
+        boolean hitObstacle = false;
+        if (isObstacleMode) {
+            hitObstacle = obstacleHitSnake || obstacleGrid.contains(head)
+                    || (snake.getTailSize() > 0 && obstacleGrid.contains(snake.getTailCell(0)));
+        }
+
+        if (hitBoundary || ateItself || hitObstacle) {
+            crashed = true;
+            over = true;
+        }
+    }
+
+    // 检查是否吃到苹果或道具
+    private void checkEatAppleAndItem() {
+        // 吃苹果
+        if (snake.getHeadCell() == apple) {
+            snake.setNeedGrow();
+            apple = takeItem(apple);
+            points++;
+            listener.onEat(snake.getHeadCell(), true);
+        }
+
+        // 吃缩短道具
+        if (snake.getHeadCell() == shrinkItem) {
+            shrinkSnake(snake);
+            shrinkItem = takeItem(shrinkItem);
+            listener.onEat(snake.getHeadCell(), true);
+        }
+
+        // 吃汉堡
+        if (snake.getHeadCell() == burger) {
+            points += 2;
+            burger = takeItem(burger);
+            snake.setNeedGrow();
+            snake.addTail(); // 汉堡加两节
+            listener.onEat(snake.getHeadCell(), true);
+        }
+    }
+
+    // 缩短指定蛇（最短为0，只剩蛇头）
+    private void shrinkSnake(Snake s) {
+        s.shrink(SHRINK_AMOUNT);
+    }
+
+    // AI蛇移动逻辑
+    private void moveAISnake() {
+        if (apple == Cell.NONE) return;
+
+        Direction moveDir = aiStrategy.decide(aiSnake.getHeadCell(), aiSnake.getTailSize() + 1,
+                aiSnake.getDirection(), apple, blockedCells);
+
+        aiSnake.forceTurn(moveDir); // 无条件转向
+        aiSnake.move();
+    }
+
+    /**
+     * 判断格子是否被任意一条蛇或障碍物占用(只有道具的格子不算)，游戏区域外的格子视为被占用
+     * 由棋盘的占用计数扣除道具得到，常数时间；竞技场并行决策期间只读调用
+     */
+    public boolean isBlocked(int cell) {
+        if (!Cell.inBounds(cell)) return true;
+        int items = (cell == apple ? 1 : 0) + (cell == burger ? 1 : 0) + (cell == shrinkItem ? 1 : 0);
+        return board.count(cell) > items;
+    }
+
+    /**
+     * 设置AI对战模式中AI蛇的决策策略
+     * @param strategy 决策策略
+     */
+    public void setAIStrategy(AIStrategy strategy) {
+        this.aiStrategy = strategy;
+    }
+
+    // 确保蛇在游戏区域内
+    private void clampSnakeToBounds(Snake s) {
+        if (s == null) return;
+        s.clampHead(0, 0, COLS - 1, ROWS - 1);
+    }
+
+    /**
+     * 从空闲格子中均匀随机选一格放置道具，并登记占用
+     * @return 道具所在格子，棋盘已满时返回 Cell.NONE
+     */
+    private int placeItem() {
+        int cell = board.randomFree(rand);
+        if (cell != Cell.NONE) board.occupy(cell);
+        return cell;
+    }
+
+    // 道具被吃掉，释放它占用的格子
+    private int takeItem(int cell) {
+        board.release(cell);
+        return Cell.NONE;
+    }
+
+    // 生成新的苹果位置
+    private void spawnApple() {
+        apple = placeItem();
+    }
+
+    // 生成新的缩短道具位置
+    private void spawnShrinkItem() {
+        shrinkItem = placeItem();
+    }
+
+    // 生成汉堡
+    private void spawnBurger() {
+        burger = placeItem();
+    }
+
+    // 生成障碍物(包级可见，供基准测试搭建场景)
+    void spawnObstacle() {
+        int cell = board.randomFree(rand);
+        if (cell == Cell.NONE) return;  // 没有空格子
+
+        // 50%概率为移动障碍物
+        Obstacle o;
+        if (rand.nextDouble() < 0.5) {
+            int dx = rand.nextBoolean() ? (rand.nextBoolean() ? 1 : -1) : 0;
+            int dy = dx == 0 ? (rand.nextBoolean() ? 1 : -1) : 0;
+            if (dx == 0 && dy == 0) dx = 1;
+            o = new Obstacle(cell, ObstacleType.MOVING, dx, dy);
+            movingObstacles.add(o);
+        } else {
+            o = new Obstacle(cell, ObstacleType.STATIC, 0, 0);
+        }
+        obstacles.add(o);
+        obstacleGrid.add(cell);
+    }
+
+    /**
+     * 把完整的世界状态写入关键帧(不含监听器和AI策略，AI策略按默认的规划器恢复)
+     * 棋盘的空闲数组和随机数状态原样保存，恢复后的模拟与原来的逐帧完全一致
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeByte(mode.ordinal());
+        out.writeLong(rand.getState());
+        out.writeLong(tickCount);
+        out.writeInt(points);
+        out.writeInt(aiSnakeScore);
+        out.writeInt(apple);
+        out.writeInt(burger);
+        out.writeInt(shrinkItem);
+        out.writeInt(speedUpLevel);
+        out.writeInt(speedUpFrameCount);
+        out.writeInt(currentDelay);
+        out.writeInt(obstacleFrameCount);
+        out.writeBoolean(crashed);
+        out.writeBoolean(over);
+        out.writeBoolean(boardFull);
+        out.writeBoolean(obstacleHitSnake);
+        board.writeState(out);
+
+        snake.writeState(out);
+        out.writeBoolean(aiSnake != null);
+        if (aiSnake != null) aiSnake.writeState(out);
+        out.writeInt(arenaSnakes.size());
+        for (Snake s : arenaSnakes) {
+            s.writeState(out);
+        }
+
+        // 移动障碍物列表是障碍物列表中按原顺序筛选出的子序列，不需要单独保存
+        out.writeInt(obstacles.size());
+        for (Obstacle o : obstacles) {
+            out.writeInt(o.getCell());
+            out.writeByte(o.getType().ordinal());
+            out.writeByte(o.getDx());
+            out.writeByte(o.getDy());
+        }
+    }
+
+    // 从 writeState 写入的关键帧恢复一局模拟
+    public static Simulation readState(DataInput in) throws IOException {
+        GameMode mode = GameMode.values()[in.readByte()];
+        GameRandom rand = new GameRandom();
+        rand.setState(in.readLong());
+        Simulation sim = new Simulation(mode, rand);
+        sim.tickCount = in.readLong();
+        sim.points = in.readInt();
+        sim.aiSnakeScore = in.readInt();
+        sim.apple = in.readInt();
+        sim.burger = in.readInt();
+        sim.shrinkItem = in.readInt();
+        sim.speedUpLevel = in.readInt();
+        sim.speedUpFrameCount = in.readInt();
+        sim.currentDelay = in.readInt();
+        sim.obstacleFrameCount = in.readInt();
+        sim.crashed = in.readBoolean();
+        sim.over = in.readBoolean();
+        sim.boardFull = in.readBoolean();
+        sim.obstacleHitSnake = in.readBoolean();
+        sim.board.readState(in);
+
+        sim.snake = Snake.readState(in, sim.board);
+        if (in.readBoolean()) sim.aiSnake = Snake.readState(in, sim.board);
+        int arenaCount = in.readInt();
+        for (int i = 0; i < arenaCount; i++) {
+            sim.arenaSnakes.add(Snake.readState(in, sim.board));
+            sim.arenaPlanners.add(new AIPlanner());
+        }
+        sim.arenaDecisions = new Direction[arenaCount];
+        sim.arenaDead = new boolean[arenaCount];
+
+        int obstacleCount = in.readInt();
+        ObstacleType[] types = ObstacleType.values();
+        for (int i = 0; i < obstacleCount; i++) {
+            Obstacle o = new Obstacle(in.readInt(), types[in.readByte()], in.readByte(), in.readByte());
+            sim.obstacles.add(o);
+            if (o.getType() == ObstacleType.MOVING) sim.movingObstacles.add(o);
+            sim.obstacleGrid.restore(o.getCell());
+        }
+        return sim;
+    }
+
+    public GameMode getMode() { return mode; }
+
+    public Snake getSnake() { return snake; }
+
+    public Snake getAISnake() { return aiSnake; }
+
+    // 竞技场模式中存活的AI蛇(其他模式为空)
+    public List<Snake> getArenaSnakes() { return arenaSnakes; }
+
+    // 苹果所在格子，没有苹果时为Cell.NONE
+    public int getApple() { return apple; }
+
+    // 汉堡所在格子，没有汉堡时为Cell.NONE
+    public int getBurger() { return burger; }
+
+    // 缩短道具所在格子，没有道具时为Cell.NONE
+    public int getShrinkItem() { return shrinkItem; }
+
+    public List<Obstacle> getObstacles() { return obstacles; }
+
+    // 判断某格是否有障碍物(常数时间)
+    public boolean isObstacleAt(int cell) { return obstacleGrid.contains(cell); }
+
+    public int getPoints() { return points; }
+
+    public int getAISnakeScore() { return aiSnakeScore; }
+
+    public int getSpeedUpLevel() { return speedUpLevel; }
+
+    // 当前每帧延迟(毫秒)，持续加速模式下会逐渐减小
+    public int getCurrentDelay() { return isSpeedUpMode ? currentDelay : BASE_DELAY; }
+
+    public long getTickCount() { return tickCount; }
+
+    // 本局是否已结束
+    public boolean isOver() { return over; }
+
+    // 是否因撞墙/撞自己/撞障碍物结束（需要播放死亡动画）
+    public boolean isCrashed() { return crashed; }
+
+    // 是否因棋盘放满而结束
+    public boolean isBoardFull() { return boardFull; }
+}
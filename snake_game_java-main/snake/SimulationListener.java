@@ -0,0 +1,21 @@
+package snake;
+
+/**
+ * 模拟事件监听器，由界面层实现，用于播放音效和生成粒子特效
+ * 无界面运行时可以不设置监听器
+ */
+public interface SimulationListener {
+    /**
+     * 吃到苹果、汉堡或缩短道具
+     * @param cell 吃到时蛇头所在格子(见Cell)
+     * @param player 是否为玩家蛇（false表示AI蛇）
+     */
+    default void onEat(int cell, boolean player) {}
+
+    /**
+     * 玩家加速额外移动了一步
+     * @param head 加速后蛇头所在格子
+     * @param direction 当前移动方向
+     */
+    default void onBoost(int head, Direction direction) {}
+}
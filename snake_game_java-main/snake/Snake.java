@@ -0,0 +1,317 @@
+package snake;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 贪吃蛇类，实现蛇的移动、转向和生长逻辑
+ *
+ * 蛇头和蛇身按顺序存放在一个环形缓冲区中(int数组，每个元素是一个打包的格子坐标，见Cell)，
+ * 第0节为蛇头，第1节起为蛇身。移动时只需把头指针前移一格并写入新蛇头，
+ * 不增长时末尾一节自然被丢弃，因此移动、增长、缩短都是O(1)且不分配对象。
+ */
+public class Snake {
+    // 当前移动方向
+    private Direction direction;
+
+    // 环形缓冲区：各节的格子坐标(容量为2的幂)
+    private int[] cells;
+    // 蛇头在缓冲区中的下标
+    private int headIndex = 0;
+    // 总节数(含蛇头)
+    private int length = 0;
+
+    // 缓冲区初始容量
+    private static final int INITIAL_CAPACITY = 64;
+
+    // 是否需要增长标记(吃到食物时设为true)
+    private boolean needGrow = false;
+
+    // 蛇头和蛇身占用的格子计数，用于常数时间的碰撞和包含查询
+    private final OccupancyGrid occupancy;
+
+    /**
+     * 构造函数，初始化蛇头和蛇身
+     * @param head 蛇头初始格子(见Cell)
+     * 默认长度为3节(head+2节body)
+     */
+    public Snake(int head) {
+        this(head, null);
+    }
+
+    // 创建空的蛇(从关键帧恢复时使用)
+    private Snake(FreeCellIndex board, int capacity) {
+        this.cells = new int[capacity];
+        this.occupancy = new OccupancyGrid(board);
+    }
+
+    /**
+     * 构造函数，并把蛇占用的格子同步到棋盘的空闲格子索引
+     * @param head 蛇头初始格子(见Cell)
+     * @param board 棋盘的空闲格子索引，可以为null
+     */
+    public Snake(int head, FreeCellIndex board) {
+        this.cells = new int[INITIAL_CAPACITY];
+        this.occupancy = new OccupancyGrid(board);
+
+        // 蛇头和两节初始蛇身(位于蛇头左侧)
+        int body1 = Cell.step(head, Direction.LEFT);
+        append(head);
+        append(body1);                                // 第1节身体
+        append(Cell.step(body1, Direction.LEFT));     // 第2节身体
+
+        // 默认向右移动
+        this.direction = Direction.RIGHT;
+    }
+
+    // 缓冲区中第i节(0为蛇头)的下标
+    private int slot(int i) {
+        return (headIndex + i) & (cells.length - 1);
+    }
+
+    // 在末尾追加一节并登记占用
+    private void append(int cell) {
+        if (length == cells.length) grow();
+        cells[slot(length)] = cell;
+        length++;
+        occupancy.add(cell);
+    }
+
+    // 缓冲区满时容量翻倍(按节顺序重新排列)，均摊O(1)
+    private void grow() {
+        int[] n = new int[cells.length * 2];
+        for (int i = 0; i < length; i++) {
+            n[i] = cells[slot(i)];
+        }
+        cells = n;
+        headIndex = 0;
+    }
+
+    /**
+     * 移动蛇的方法
+     * 1. 旧蛇头成为第1节身体(缓冲区中位置不变)
+     * 2. 如果不是增长状态，丢弃蛇尾最后一节
+     * 3. 在头指针前一格写入按当前方向移动后的新蛇头
+     */
+    public void move() {
+        int newHead = Cell.step(cells[headIndex], direction);
+
+        if (!needGrow) {
+            // 移除蛇尾最后一节，新蛇头复用它的位置
+            occupancy.remove(cells[slot(length - 1)]);
+        } else {
+            // 如果是增长状态，长度加一，重置标记
+            if (length == cells.length) grow();
+            length++;
+            needGrow = false;
+        }
+
+        headIndex = (headIndex - 1) & (cells.length - 1);
+        cells[headIndex] = newHead;
+        occupancy.add(newHead);
+    }
+
+    /**
+     * 增加蛇身长度
+     * 在蛇尾添加一个新节点(位置与最后一节相同)
+     */
+    public void addTail() {
+        append(cells[slot(length - 1)]);
+    }
+
+    /**
+     * 缩短蛇身，最短为0(只剩蛇头)
+     * @param amount 要移除的节数
+     */
+    public void shrink(int amount) {
+        for (int i = 0; i < amount && length > 1; i++) {
+            occupancy.remove(cells[slot(length - 1)]);
+            length--;
+        }
+    }
+
+    /**
+     * 从棋盘上移除整条蛇(例如被吞噬后)，释放它占用的所有格子
+     * 调用后这条蛇不能再使用
+     */
+    public void removeFromBoard() {
+        while (length > 0) {
+            occupancy.remove(cells[slot(length - 1)]);
+            length--;
+        }
+    }
+
+    /**
+     * 将蛇头限制在指定的格子范围内
+     * 蛇身的每一节都曾经是蛇头，所以只需要处理蛇头
+     */
+    public void clampHead(int minCol, int minRow, int maxCol, int maxRow) {
+        int head = cells[headIndex];
+        int col = Math.max(minCol, Math.min(Cell.col(head), maxCol));
+        int row = Math.max(minRow, Math.min(Cell.row(head), maxRow));
+        int clamped = Cell.of(col, row);
+        if (clamped != head) {
+            occupancy.remove(head);
+            cells[headIndex] = clamped;
+            occupancy.add(clamped);
+        }
+    }
+
+    /**
+     * 改变蛇的移动方向(有转向限制)
+     * @param d 新的方向
+     * 限制条件：不能直接反向移动(如左转右，上转下)
+     * 只能垂直方向转水平方向，或水平方向转垂直方向
+     */
+    public void turn(Direction d) {
+        // 检查转向是否合法(新方向必须与原方向垂直)
+        if ((d.isX() && direction.isY()) || (d.isY() && direction.isX())) {
+           direction = d;  // 更新方向
+        }
+    }
+
+    /**
+     * 无条件改变蛇的移动方向(AI专用)
+     * @param d 新的方向
+     */
+    public void forceTurn(Direction d) {
+        this.direction = d;  // 直接更新方向
+    }
+
+    /**
+     * 获取蛇身节数(不含蛇头)
+     */
+    public int getTailSize() {
+        return length - 1;
+    }
+
+    /**
+     * 获取第i节蛇身的格子坐标
+     * @param i 蛇身下标，0为紧跟蛇头的一节
+     */
+    public int getTailCell(int i) {
+        return cells[slot(i + 1)];
+    }
+
+    /**
+     * 按顺序(蛇头在前)把各节的格子坐标复制到数组中
+     * @param dst 目标数组，从offset起至少还有 getTailSize() + 1 个位置
+     * @param offset 写入的起始位置
+     * @return 复制的节数
+     */
+    public int copyTo(int[] dst, int offset) {
+        int first = Math.min(length, cells.length - headIndex);
+        System.arraycopy(cells, headIndex, dst, offset, first);
+        System.arraycopy(cells, 0, dst, offset + first, length - first);
+        return length;
+    }
+
+    // 获取蛇头的格子坐标
+    public int getHeadCell() {
+        return cells[headIndex];
+    }
+
+    /**
+     * 获取蛇头位置(像素坐标，供界面层使用)
+     * @return 表示蛇头位置的新Point对象(修改它不会影响蛇)
+     */
+    public Point getHead() {
+        return Point.fromCell(cells[headIndex]);
+    }
+
+    /**
+     * 获取当前移动方向
+     * @return 当前方向枚举值
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * 设置需要增长标记
+     * 下次移动时蛇身将增长一节
+     */
+    public void setNeedGrow() {
+        this.needGrow = true;
+    }
+
+    /**
+     * 重置需要增长标记
+     */
+    public void setNeedGrowFalse() {
+        this.needGrow = false;
+    }
+
+    /**
+     * 检查蛇是否包含某个点
+     * @param p 要检查的点
+     * @return 如果点与蛇头或任意蛇身节点重合返回true，否则false
+     */
+    public boolean contains(Point p) {
+        return occupancy.contains(p.toCell());
+    }
+
+    /**
+     * 检查蛇是否占用某个格子
+     * @param cell 格子坐标(见Cell)
+     */
+    public boolean contains(int cell) {
+        return occupancy.contains(cell);
+    }
+
+    /**
+     * 获取蛇在某个格子上的节数(增长时蛇尾可能暂时重叠)
+     * @param cell 格子坐标(见Cell)
+     */
+    public int count(int cell) {
+        return occupancy.count(cell);
+    }
+
+    /**
+     * 检查蛇身从第from节开始(下标从0计)是否包含某个格子，不含蛇头
+     * 通过占用计数扣除蛇头和前from节得到，常数时间
+     * @param cell 格子坐标
+     * @param from 起始节下标
+     */
+    public boolean tailContains(int cell, int from) {
+        int n = occupancy.count(cell);
+        if (n == 0) return false;
+        for (int i = 0; i <= from && i < length; i++) {
+            if (cells[slot(i)] == cell) n--;
+        }
+        return n > 0;
+    }
+
+    // 保存方向、增长标记和各节格子(蛇头在前)
+    public void writeState(DataOutput out) throws IOException {
+        out.writeByte(direction.ordinal());
+        out.writeBoolean(needGrow);
+        out.writeInt(length);
+        for (int i = 0; i < length; i++) {
+            out.writeInt(cells[slot(i)]);
+        }
+    }
+
+    /**
+     * 从 writeState 写入的数据恢复一条蛇
+     * @param board 棋盘的空闲格子索引(其状态已单独恢复，这里不再重复登记)，可以为null
+     */
+    public static Snake readState(DataInput in, FreeCellIndex board) throws IOException {
+        Direction direction = Direction.values()[in.readByte()];
+        boolean needGrow = in.readBoolean();
+        int length = in.readInt();
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < length) capacity *= 2;
+        Snake s = new Snake(board, capacity);
+        s.direction = direction;
+        s.needGrow = needGrow;
+        s.length = length;
+        for (int i = 0; i < length; i++) {
+            int cell = in.readInt();
+            s.cells[i] = cell;
+            s.occupancy.restore(cell);
+        }
+        return s;
+    }
+}
@@ -0,0 +1,132 @@
+package snake;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * 预缩放的精灵图集
+ *
+ * 蛇头、蛇身、道具等原图尺寸各不相同(AI蛇身原图有几百像素)，每格都按 gridSize 缩放绘制时
+ * Java2D 每次调用都要重新缩放，常常走非加速路径。这里把所有精灵预先缩放到格子大小，
+ * 排成一行画进一张与显示设备兼容的图片，绘制时只从图集中原尺寸复制一块，不再缩放。
+ * 原图可以在任意线程中陆续设置，绘制线程在下一帧开始时重建图集；
+ * 显示设备配置变化时同样重建(与 BackgroundCache 相同)。
+ */
+public class SpriteAtlas {
+    public static final int SNAKE_HEAD = 0;
+    public static final int SNAKE_BODY = 1;
+    public static final int AI_HEAD = 2;
+    public static final int AI_BODY = 3;
+    public static final int SHRINK_ITEM = 4;
+    public static final int APPLE = 5;
+    public static final int BURGER = 6;
+    private static final int COUNT = 7;
+
+    // 绘制某一帧时使用的图集(不可变，可以在绘制期间跨线程共享)
+    public static final class Sheet {
+        private final BufferedImage image;
+        private final int mask;  // 已有原图的精灵(按位)
+        private final int size;  // 格子大小
+
+        private Sheet(BufferedImage image, int mask, int size) {
+            this.image = image;
+            this.mask = mask;
+            this.size = size;
+        }
+
+        // 图集中是否有该精灵(原图未加载或加载失败时没有)
+        public boolean has(int sprite) {
+            return (mask & (1 << sprite)) != 0;
+        }
+
+        // 在(x, y)处原尺寸绘制精灵
+        public void draw(Graphics g, int sprite, int x, int y) {
+            int sx = sprite * size;
+            g.drawImage(image, x, y, x + size, y + size, sx, 0, sx + size, size, null);
+        }
+    }
+
+    private final int size;  // 格子大小
+    private final Image[] sources = new Image[COUNT];  // 各精灵的原图
+    private boolean dirty = true;  // 原图变化后需要重建
+    private GraphicsConfiguration config;  // 图集所对应的显示设备配置
+    private Sheet sheet;  // 当前图集
+
+    /**
+     * @param size 格子大小(精灵缩放到的边长)
+     */
+    public SpriteAtlas(int size) {
+        this.size = size;
+    }
+
+    /**
+     * 设置精灵原图(例如加载完成后)，下一帧重建图集
+     * @param sprite 精灵编号
+     * @param image 原图，为null时该精灵改用调用方的替代图形
+     */
+    public synchronized void setSource(int sprite, Image image) {
+        sources[sprite] = image;
+        dirty = true;
+    }
+
+    /**
+     * 获取与目标设备兼容的最新图集，每帧开始时调用一次
+     * @param gc 目标显示设备配置
+     */
+    public synchronized Sheet prepare(GraphicsConfiguration gc) {
+        if (dirty || gc != config) {
+            config = gc;
+            dirty = false;
+            sheet = build();
+        }
+        return sheet;
+    }
+
+    // 把所有精灵缩放后画进一张新图集
+    private Sheet build() {
+        int width = size * COUNT;
+        BufferedImage image = config != null
+                ? config.createCompatibleImage(width, size, Transparency.TRANSLUCENT)
+                : new BufferedImage(width, size, BufferedImage.TYPE_INT_ARGB_PRE);
+        int mask = 0;
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            for (int i = 0; i < COUNT; i++) {
+                if (sources[i] == null) continue;
+                g.drawImage(shrink(sources[i]), i * size, 0, size, size, null);
+                mask |= 1 << i;
+            }
+        } finally {
+            g.dispose();
+        }
+        return new Sheet(image, mask, size);
+    }
+
+    // 大图先逐次减半到不足两倍格子大小，避免一步双线性缩小时丢失细节
+    private Image shrink(Image src) {
+        int w = src.getWidth(null);
+        int h = src.getHeight(null);
+        Image cur = src;
+        while (w >= size * 2 && h >= size * 2) {
+            w /= 2;
+            h /= 2;
+            BufferedImage half = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = half.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(cur, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            cur = half;
+        }
+        return cur;
+    }
+}
@@ -0,0 +1,175 @@
+package snake;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * 无界面的AI策略锦标赛
+ *
+ * 在所有CPU核心上并行跑大量完整对局，不打开窗口也不等待计时器。
+ * 玩家一方和AI蛇一方各自使用指定的策略，每局使用由基础种子派生的独立种子，
+ * 同样的参数重复运行结果完全一致。结束后输出得分分布、存活帧数、胜率和每秒对局数。
+ *
+ * 用法: java -cp build/libs/snake_game_java.jar snake.Tournament [选项]
+ *   --games N       对局数(默认10000)
+ *   --mode MODE     CLASSIC / AI / SPEEDUP / OBSTACLE / ARENA(默认AI)
+ *   --player NAME   玩家一方的策略 greedy / planner(默认planner)
+ *   --ai NAME       AI蛇的策略 greedy / planner(默认greedy，仅AI模式)
+ *   --arena N       竞技场模式的AI蛇数量(默认 Simulation.DEFAULT_ARENA_SNAKES)
+ *   --max-ticks N   每局最多推进的帧数，超过算平局(默认5000)
+ *   --seed S        基础种子(默认1)
+ */
+public class Tournament {
+    // 对局结果
+    private static final byte DRAW = 0;  // 达到帧数上限或棋盘已满
+    private static final byte WIN = 1;  // 玩家一方获胜(AI蛇全部被消灭)
+    private static final byte LOSS = 2;  // 玩家一方死亡
+
+    private int games = 10000;
+    private GameMode mode = GameMode.AI;
+    private String playerStrategy = "planner";
+    private String aiStrategy = "greedy";
+    private int arenaSnakes = Simulation.DEFAULT_ARENA_SNAKES;
+    private int maxTicks = 5000;
+    private long seed = 1;
+
+    // 每局的结果，按对局编号存放，各线程只写自己负责的下标
+    private int[] scores;
+    private int[] ticks;
+    private byte[] outcomes;
+
+    public static void main(String[] args) {
+        Tournament t = new Tournament();
+        try {
+            t.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+        t.run();
+    }
+
+    // 解析命令行参数
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String key = args[i];
+            if (i + 1 >= args.length) throw new IllegalArgumentException("缺少参数值: " + key);
+            String value = args[++i];
+            switch (key) {
+                case "--games": games = Integer.parseInt(value); break;
+                case "--mode": mode = GameMode.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                case "--player": playerStrategy = value; break;
+                case "--ai": aiStrategy = value; break;
+                case "--arena": arenaSnakes = Integer.parseInt(value); break;
+                case "--max-ticks": maxTicks = Integer.parseInt(value); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                default: throw new IllegalArgumentException("未知选项: " + key);
+            }
+        }
+        if (games <= 0) throw new IllegalArgumentException("对局数必须大于0");
+        // 提前检查策略名称
+        AIStrategy.create(playerStrategy);
+        AIStrategy.create(aiStrategy);
+    }
+
+    // 并行跑完所有对局并输出统计
+    private void run() {
+        scores = new int[games];
+        ticks = new int[games];
+        outcomes = new byte[games];
+        System.out.printf("模式: %s  玩家策略: %s  AI策略: %s  对局数: %d  线程数: %d%n",
+                mode, playerStrategy, aiStrategy, games, Runtime.getRuntime().availableProcessors());
+
+        AtomicInteger done = new AtomicInteger();
+        long start = System.nanoTime();
+        IntStream.range(0, games).parallel().forEach(i -> {
+            playGame(i);
+            int n = done.incrementAndGet();
+            if (n % 10000 == 0) System.out.printf("已完成 %d 局%n", n);
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        report(seconds);
+    }
+
+    /**
+     * 跑完一局
+     * @param index 对局编号，用于派生种子和存放结果
+     */
+    private void playGame(int index) {
+        Simulation sim = new Simulation(mode, mix(seed + index), arenaSnakes);
+        sim.setAIStrategy(AIStrategy.create(aiStrategy));
+        AIStrategy player = AIStrategy.create(playerStrategy);
+        IntPredicate blocked = sim::isBlocked;
+
+        while (!sim.isOver() && sim.getTickCount() < maxTicks && !opponentsGone(sim)) {
+            Snake s = sim.getSnake();
+            Direction turn = player.decide(s.getHeadCell(), s.getTailSize() + 1, s.getDirection(),
+                    sim.getApple(), blocked);
+            sim.tick(turn, false);
+        }
+
+        scores[index] = sim.getPoints();
+        ticks[index] = (int) sim.getTickCount();
+        if (sim.isOver() && !sim.isBoardFull()) {
+            outcomes[index] = LOSS;
+        } else if (opponentsGone(sim)) {
+            outcomes[index] = WIN;
+        } else {
+            outcomes[index] = DRAW;
+        }
+    }
+
+    // 有对手的模式下，对手是否已经全部被消灭
+    private boolean opponentsGone(Simulation sim) {
+        if (mode == GameMode.AI) return sim.getAISnake() == null;
+        if (mode == GameMode.ARENA) return sim.getArenaSnakes().isEmpty();
+        return false;
+    }
+
+    // 把相邻的种子打散(取 GameRandom 的第一个输出，即 SplitMix64 混合后的值)，避免相邻对局的随机序列相关
+    private static long mix(long seed) {
+        return new GameRandom(seed).nextLong();
+    }
+
+    // 输出统计结果
+    private void report(double seconds) {
+        int wins = 0;
+        int losses = 0;
+        int draws = 0;
+        for (byte o : outcomes) {
+            if (o == WIN) wins++;
+            else if (o == LOSS) losses++;
+            else draws++;
+        }
+
+        System.out.printf("用时: %.2f秒  每秒对局数: %.1f%n", seconds, games / seconds);
+        printDistribution("得分", scores);
+        printDistribution("存活帧数", ticks);
+        if (mode == GameMode.AI || mode == GameMode.ARENA) {
+            System.out.printf("胜: %d (%.1f%%)  负: %d (%.1f%%)  平: %d (%.1f%%)%n",
+                    wins, 100.0 * wins / games, losses, 100.0 * losses / games, draws, 100.0 * draws / games);
+        } else {
+            System.out.printf("死亡: %d (%.1f%%)  达到帧数上限: %d (%.1f%%)%n",
+                    losses, 100.0 * losses / games, draws, 100.0 * draws / games);
+        }
+    }
+
+    // 输出一组数值的平均值和分位数
+    private static void printDistribution(String name, int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0);
+        System.out.printf("%s  平均: %.2f  最小: %d  p50: %d  p90: %d  p99: %d  最大: %d%n",
+                name, mean, sorted[0], percentile(sorted, 0.5), percentile(sorted, 0.9),
+                percentile(sorted, 0.99), sorted[sorted.length - 1]);
+    }
+
+    // 已排序数组的分位数
+    private static int percentile(int[] sorted, double p) {
+        int i = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(i, sorted.length - 1))];
+    }
+}
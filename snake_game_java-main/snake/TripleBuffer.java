@@ -0,0 +1,57 @@
+package snake;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 无锁三缓冲
+ *
+ * 三个预先创建的缓冲对象分别归写者、读者所有，第三个作为交换区。
+ * 写者填好自己的缓冲后通过一次原子交换把它放入交换区(并标记为新数据)，拿回交换区里原来的缓冲继续写；
+ * 读者发现交换区有新数据时同样通过一次原子交换拿到它。双方都不会阻塞对方，
+ * 读者拿到的缓冲在下次交换前不会被写者修改，而且总是最近一次发布的完整数据。
+ * 原子交换同时保证了写者在发布前的所有写入对读者可见。
+ *
+ * 只支持一个写者和一个读者同时工作，有多个线程写或读时需要调用方自己串行化。
+ */
+public class TripleBuffer<T> {
+    // 交换区状态中表示"有未读新数据"的标志位，低两位是缓冲下标
+    private static final int FRESH = 4;
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(1);  // 交换区中的缓冲下标
+    private int writeIndex = 0;  // 写者持有的缓冲下标
+    private int readIndex = 2;  // 读者持有的缓冲下标
+
+    /**
+     * @param factory 用于创建三个缓冲对象
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    // 写者当前可以填写的缓冲
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[writeIndex];
+    }
+
+    // 发布写者缓冲中的数据，之后写者需要重新调用 getWriteBuffer()
+    public void publish() {
+        writeIndex = middle.getAndSet(writeIndex | FRESH) & 3;
+    }
+
+    /**
+     * 读者获取最近一次发布的数据
+     * 没有新数据时返回上次读到的缓冲(尚未发布过时为初始的空缓冲)
+     */
+    @SuppressWarnings("unchecked")
+    public T getReadBuffer() {
+        if ((middle.get() & FRESH) != 0) {
+            readIndex = middle.getAndSet(readIndex) & 3;
+        }
+        return (T) buffers[readIndex];
+    }
+}
@@ -0,0 +1,111 @@
+package snake;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * FreeCellIndex 交换删除和随机取空格的测试
+ */
+class FreeCellIndexTest {
+    private static final int COLS = 7;
+    private static final int ROWS = 5;
+
+    @Test
+    void freeCellsStayConsistentUnderRandomOccupyAndRelease() {
+        FreeCellIndex board = new FreeCellIndex(COLS, ROWS);
+        int[] counts = new int[COLS * ROWS];  // 模型：每格占用次数
+        Random rand = new Random(2);
+        for (int step = 0; step < 20000; step++) {
+            int col = rand.nextInt(COLS);
+            int row = rand.nextInt(ROWS);
+            int i = row * COLS + col;
+            if (counts[i] > 0 && rand.nextBoolean()) {
+                board.release(Cell.of(col, row));
+                counts[i]--;
+            } else {
+                board.occupy(Cell.of(col, row));
+                counts[i]++;
+            }
+            if (step % 101 == 0) assertMatches(counts, board, rand);
+        }
+        assertMatches(counts, board, rand);
+    }
+
+    @Test
+    void fullBoardHasNoFreeCell() {
+        FreeCellIndex board = new FreeCellIndex(2, 2);
+        board.occupy(Cell.of(0, 0));
+        board.occupy(Cell.of(1, 0));
+        board.occupy(Cell.of(0, 1));
+        assertEquals(Cell.of(1, 1), board.randomFree(new Random(3)));
+        board.occupy(Cell.of(1, 1));
+        assertTrue(board.isFull());
+        assertEquals(Cell.NONE, board.randomFree(new Random(3)));
+        board.release(Cell.of(0, 1));
+        assertEquals(Cell.of(0, 1), board.randomFree(new Random(3)));
+    }
+
+    @Test
+    void cellsOutsideTheBoardAreIgnored() {
+        FreeCellIndex board = new FreeCellIndex(COLS, ROWS);
+        board.occupy(Cell.of(-1, 0));
+        board.occupy(Cell.of(COLS, ROWS));
+        board.release(Cell.of(0, -1));
+        assertEquals(COLS * ROWS, board.getFreeCount());
+        assertFalse(board.isFree(Cell.of(-1, 0)));
+    }
+
+    @Test
+    void restoredIndexPicksTheSameRandomCells() throws IOException {
+        FreeCellIndex board = new FreeCellIndex(COLS, ROWS);
+        Random fill = new Random(4);
+        for (int n = 0; n < 20; n++) {
+            board.occupy(Cell.of(fill.nextInt(COLS), fill.nextInt(ROWS)));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        board.writeState(new DataOutputStream(bytes));
+        FreeCellIndex copy = new FreeCellIndex(COLS, ROWS);
+        copy.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        Random a = new Random(5);
+        Random b = new Random(5);
+        for (int n = 0; n < 50; n++) {
+            int cell = board.randomFree(a);
+            assertEquals(cell, copy.randomFree(b));
+            board.occupy(cell);
+            copy.occupy(cell);
+        }
+        assertEquals(board.getFreeCount(), copy.getFreeCount());
+    }
+
+    // 占用计数、空格数与模型一致，随机取到的都是空格且能取遍所有空格
+    private static void assertMatches(int[] counts, FreeCellIndex board, Random rand) {
+        Set<Integer> expectedFree = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            int cell = Cell.of(i % COLS, i / COLS);
+            assertEquals(counts[i], board.count(cell));
+            assertEquals(counts[i] == 0, board.isFree(cell));
+            if (counts[i] == 0) expectedFree.add(cell);
+        }
+        assertEquals(expectedFree.size(), board.getFreeCount());
+        Set<Integer> seen = new HashSet<>();
+        for (int n = 0; n < 2000 && !expectedFree.isEmpty(); n++) {
+            int cell = board.randomFree(rand);
+            assertTrue(expectedFree.contains(cell));
+            seen.add(cell);
+        }
+        assertEquals(expectedFree, seen);
+    }
+}
@@ -0,0 +1,73 @@
+package snake;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * InputQueue 顺序、容量、转向过滤和跨线程传递的测试
+ */
+class InputQueueTest {
+    private static final int OFFERS = 200_000;  // 并发测试中的输入数
+
+    @Test
+    void pollsInOfferOrder() {
+        InputQueue q = new InputQueue();
+        q.offer(Direction.UP);
+        q.offer(Direction.LEFT);
+        q.offer(Direction.DOWN);
+        assertEquals(Direction.UP, q.poll());
+        assertEquals(Direction.LEFT, q.poll());
+        assertEquals(Direction.DOWN, q.poll());
+        assertNull(q.poll());
+    }
+
+    @Test
+    void rejectsInputWhenFullAndWrapsAround() {
+        InputQueue q = new InputQueue();
+        int accepted = 0;
+        while (q.offer(Direction.values()[accepted % 4])) accepted++;
+        assertEquals(16, accepted);
+        assertFalse(q.offer(Direction.UP));
+        for (int round = 0; round < 100; round++) {
+            Direction d = q.poll();
+            assertTrue(q.offer(d));  // 每取出一个就能再放入一个
+        }
+        q.clear();
+        assertNull(q.poll());
+    }
+
+    @Test
+    void pollTurnSkipsParallelInputs() {
+        InputQueue q = new InputQueue();
+        q.offer(Direction.LEFT);   // 反向
+        q.offer(Direction.RIGHT);  // 同向
+        q.offer(Direction.UP);
+        q.offer(Direction.LEFT);
+        assertEquals(Direction.UP, q.pollTurn(Direction.RIGHT));
+        assertEquals(Direction.LEFT, q.pollTurn(Direction.UP));
+        assertNull(q.pollTurn(Direction.LEFT));
+    }
+
+    @Test
+    void deliversEveryInputInOrderAcrossThreads() throws InterruptedException {
+        InputQueue q = new InputQueue();
+        Direction[] dirs = Direction.values();
+        Thread producer = new Thread(() -> {
+            for (int n = 0; n < OFFERS; n++) {
+                while (!q.offer(dirs[n % 4])) Thread.yield();
+            }
+        });
+        producer.start();
+        for (int n = 0; n < OFFERS; n++) {
+            Direction d;
+            while ((d = q.poll()) == null) Thread.yield();
+            assertEquals(dirs[n % 4], d, "第" + n + "个输入");
+        }
+        producer.join();
+        assertNull(q.poll());
+    }
+}
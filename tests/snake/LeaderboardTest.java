@@ -0,0 +1,80 @@
+package snake;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Leaderboard 排名、分位数、前K名和每日汇总的测试，与逐条计算的结果对照
+ */
+class LeaderboardTest {
+    private static final long DAY_MILLIS = 24L * 3600 * 1000;
+
+    @Test
+    void rankAndPercentilesMatchBruteForce() {
+        Leaderboard board = new Leaderboard(5, ZoneOffset.UTC);
+        Random rand = new Random(6);
+        List<Integer> scores = new ArrayList<>();
+        for (int n = 0; n < 2000; n++) {
+            // 分数逐渐变大，树状数组需要多次扩容
+            int score = rand.nextInt(10 + n / 4);
+            scores.add(score);
+            board.add(n * 1000L, GameMode.CLASSIC, score, 10);
+        }
+        int[] sorted = scores.stream().mapToInt(Integer::intValue).sorted().toArray();
+
+        for (int probe = -1; probe <= sorted[sorted.length - 1] + 2; probe++) {
+            int below = 0;
+            for (int s : sorted) {
+                if (s < probe) below++;
+            }
+            assertEquals(100 * below / sorted.length, board.percentBeaten(GameMode.CLASSIC, probe), "分数" + probe);
+        }
+        for (double p : new double[] {0.01, 0.25, 0.5, 0.9, 0.99, 1.0}) {
+            int rank = (int) Math.max(1, Math.ceil(p * sorted.length));
+            assertEquals(sorted[rank - 1], board.scoreAtPercentile(GameMode.CLASSIC, p), "分位" + p);
+        }
+        assertEquals(2000, board.getGameCount(GameMode.CLASSIC));
+
+        int[] top = board.getTop(GameMode.CLASSIC).stream().mapToInt(e -> e.score).toArray();
+        int[] expected = new int[5];
+        for (int i = 0; i < 5; i++) expected[i] = sorted[sorted.length - 1 - i];
+        assertEquals(Arrays.toString(expected), Arrays.toString(top));
+    }
+
+    @Test
+    void modesAreIndependentAndEmptyModesHaveNoRank() {
+        Leaderboard board = new Leaderboard();
+        board.add(0L, GameMode.AI, 30, 10);
+        assertEquals(-1, board.percentBeaten(GameMode.CLASSIC, 10));
+        assertEquals(0, board.scoreAtPercentile(GameMode.CLASSIC, 0.5));
+        assertEquals(0, board.getTop(GameMode.CLASSIC).size());
+        assertEquals(100, board.percentBeaten(GameMode.AI, 31));
+        assertEquals(0, board.percentBeaten(GameMode.AI, 30));
+    }
+
+    @Test
+    void dailyStatsAreGroupedByDateInOrder() {
+        Leaderboard board = new Leaderboard(10, ZoneOffset.UTC);
+        long day0 = LocalDate.of(2024, 3, 1).toEpochDay() * DAY_MILLIS;
+        board.add(day0 + DAY_MILLIS + 5, GameMode.ARENA, 8, 10);
+        board.add(day0 + 1, GameMode.ARENA, 4, 10);
+        board.add(day0 + 2, GameMode.ARENA, 10, 10);
+
+        List<Leaderboard.DayStats> days = board.getDaily(GameMode.ARENA);
+        assertEquals(2, days.size());
+        assertEquals(LocalDate.of(2024, 3, 1), days.get(0).date);
+        assertEquals(2, days.get(0).games);
+        assertEquals(10, days.get(0).bestScore);
+        assertEquals(7.0, days.get(0).getAverage());
+        assertEquals(LocalDate.of(2024, 3, 2), days.get(1).date);
+        assertEquals(8, days.get(1).bestScore);
+    }
+}
@@ -0,0 +1,60 @@
+package snake;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * OccupancyGrid 占用计数和向棋盘转发的测试
+ */
+class OccupancyGridTest {
+    @Test
+    void countsOverlappingOccupants() {
+        OccupancyGrid grid = new OccupancyGrid(4, 4, null);
+        int cell = Cell.of(1, 2);
+        grid.add(cell);
+        grid.add(cell);  // 增长时蛇尾暂时重叠
+        assertEquals(2, grid.count(cell));
+        grid.remove(cell);
+        assertTrue(grid.contains(cell));
+        grid.remove(cell);
+        assertFalse(grid.contains(cell));
+    }
+
+    @Test
+    void cellsOutsideTheGridAreNeverOccupied() {
+        OccupancyGrid grid = new OccupancyGrid(4, 4, null);
+        grid.add(Cell.of(-1, 0));
+        grid.add(Cell.of(4, 3));
+        assertFalse(grid.contains(Cell.of(-1, 0)));
+        assertFalse(grid.contains(Cell.of(4, 3)));
+        assertEquals(0, grid.count(Cell.of(0, 4)));
+    }
+
+    @Test
+    void forwardsChangesToTheBoard() {
+        FreeCellIndex board = new FreeCellIndex(4, 4);
+        OccupancyGrid a = new OccupancyGrid(4, 4, board);
+        OccupancyGrid b = new OccupancyGrid(4, 4, board);
+        int cell = Cell.of(3, 3);
+        a.add(cell);
+        b.add(cell);
+        assertEquals(15, board.getFreeCount());
+        a.remove(cell);
+        assertFalse(board.isFree(cell));  // 另一个网格仍然占用
+        b.remove(cell);
+        assertTrue(board.isFree(cell));
+        assertEquals(16, board.getFreeCount());
+    }
+
+    @Test
+    void restoreDoesNotTouchTheBoard() {
+        FreeCellIndex board = new FreeCellIndex(4, 4);
+        OccupancyGrid grid = new OccupancyGrid(4, 4, board);
+        grid.restore(Cell.of(0, 0));
+        assertTrue(grid.contains(Cell.of(0, 0)));
+        assertTrue(board.isFree(Cell.of(0, 0)));
+    }
+}
@@ -0,0 +1,117 @@
+package snake;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * 录像确定性的测试：录制、存盘、读回、回放后与原局的最终状态逐字节比对
+ */
+class ReplayTest {
+    private static final int MAX_TICKS = 4000;       // 单局最多模拟的帧数
+    private static final int KEYFRAME_INTERVAL = 64;  // 关键帧间隔取小一些，便于覆盖跳转
+
+    @TempDir
+    Path dir;
+
+    @ParameterizedTest
+    @EnumSource(GameMode.class)
+    void replayReachesSameFinalState(GameMode mode) throws IOException {
+        long seed = 20240301L + mode.ordinal();
+        Simulation sim = new Simulation(mode, seed);
+        Replay recorded = play(sim, new Random(seed), new ReplayRecorder(mode, seed, KEYFRAME_INTERVAL));
+
+        Path file = dir.resolve(mode + ".replay");
+        recorded.save(file);
+        Replay loaded = Replay.load(file);
+        assertEquals(mode, loaded.getMode());
+        assertEquals(seed, loaded.getSeed());
+        assertEquals(sim.getTickCount(), loaded.getTotalTicks());
+        assertEquals(recorded.getInputCount(), loaded.getInputCount());
+        assertEquals(recorded.getKeyframeCount(), loaded.getKeyframeCount());
+
+        ReplayPlayer player = new ReplayPlayer(loaded);
+        while (player.step()) {
+            // 顺序回放到结尾
+        }
+        Simulation replayed = player.getSimulation();
+        assertEquals(sim.getTickCount(), replayed.getTickCount());
+        assertEquals(sim.getPoints(), replayed.getPoints());
+        assertEquals(sim.isOver(), replayed.isOver());
+        assertArrayEquals(stateOf(sim), stateOf(replayed));
+    }
+
+    @Test
+    void seekMatchesSequentialPlayback() throws IOException {
+        long seed = 77L;
+        Simulation sim = new Simulation(GameMode.OBSTACLE, seed);
+        Replay replay = play(sim, new Random(seed), new ReplayRecorder(GameMode.OBSTACLE, seed, KEYFRAME_INTERVAL));
+        assertTrue(replay.getKeyframeCount() > 1, "录像太短，没有覆盖多个关键帧");
+
+        // 顺序回放时记下每一帧的状态
+        long total = replay.getTotalTicks();
+        byte[][] expected = new byte[(int) total + 1][];
+        ReplayPlayer sequential = new ReplayPlayer(replay);
+        expected[0] = stateOf(sequential.getSimulation());
+        while (sequential.step()) {
+            expected[(int) sequential.getTick()] = stateOf(sequential.getSimulation());
+        }
+        assertEquals(total, sequential.getTick());
+
+        // 向后、向前、跨关键帧、正好落在关键帧上的跳转都要与顺序回放一致
+        ReplayPlayer seeker = new ReplayPlayer(replay);
+        Random rand = new Random(seed);
+        long[] targets = {total, 0, KEYFRAME_INTERVAL, KEYFRAME_INTERVAL - 1, total / 2, total - 1};
+        for (long t : targets) {
+            seeker.seek(t);
+            assertEquals(t, seeker.getTick());
+            assertArrayEquals(expected[(int) t], stateOf(seeker.getSimulation()), "第" + t + "帧");
+        }
+        for (int i = 0; i < 50; i++) {
+            long t = (long) (rand.nextDouble() * (total + 1));
+            seeker.seek(t);
+            assertArrayEquals(expected[(int) t], stateOf(seeker.getSimulation()), "第" + t + "帧");
+        }
+        seeker.seek(total);
+        assertFalse(seeker.step());
+    }
+
+    // 用寻路AI加上随机的转向和加速驱动玩家蛇，边玩边录制
+    private static Replay play(Simulation sim, Random rand, ReplayRecorder recorder) {
+        AIPlanner planner = new AIPlanner();
+        boolean accelerate = false;
+        while (!sim.isOver() && sim.getTickCount() < MAX_TICKS) {
+            Snake s = sim.getSnake();
+            Direction turn;
+            if (rand.nextInt(20) == 0) {
+                turn = Direction.values()[rand.nextInt(4)];
+            } else {
+                turn = planner.decide(s.getHeadCell(), s.getTailSize() + 1, s.getDirection(), sim.getApple(),
+                        sim::isBlocked);
+            }
+            if (turn == s.getDirection()) turn = null;  // 没有转向时不产生输入
+            if (rand.nextInt(30) == 0) accelerate = !accelerate;
+            recorder.record(sim, turn, accelerate);
+            sim.tick(turn, accelerate);
+        }
+        return recorder.finish(sim);
+    }
+
+    private static byte[] stateOf(Simulation sim) throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        sim.writeState(new DataOutputStream(buf));
+        return buf.toByteArray();
+    }
+}
@@ -0,0 +1,113 @@
+package snake;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ScoreStore 二进制格式的写入、重新打开、半条记录截断和旧版文本导入测试
+ */
+class ScoreStoreTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsAndBestScoresSurviveReopening() throws IOException {
+        Path file = dir.resolve("scores.dat");
+        try (ScoreStore store = ScoreStore.open(file, null)) {
+            assertTrue(store.append(1000L, GameMode.CLASSIC, 12, 30));
+            assertFalse(store.append(2000L, GameMode.CLASSIC, 7, 20));
+            assertTrue(store.append(3000L, GameMode.ARENA, 40, 90));
+            store.sync();
+        }
+        try (ScoreStore store = ScoreStore.open(file, null)) {
+            assertEquals(3, store.getRecordCount());
+            assertEquals(12, store.getBest(GameMode.CLASSIC));
+            assertEquals(40, store.getBest(GameMode.ARENA));
+            assertEquals(0, store.getBest(GameMode.AI));
+            assertEquals(List.of("1000 CLASSIC 12 30", "2000 CLASSIC 7 20", "3000 ARENA 40 90"), records(store));
+
+            // 重新打开后继续追加
+            store.append(4000L, GameMode.SPEEDUP, 5, 10);
+            store.sync();
+        }
+        try (ScoreStore store = ScoreStore.open(file, null)) {
+            assertEquals(4, store.getRecordCount());
+            assertEquals("4000 SPEEDUP 5 10", records(store).get(3));
+        }
+    }
+
+    @Test
+    void uncommittedTailIsTruncatedOnOpen() throws IOException {
+        Path file = dir.resolve("scores.dat");
+        try (ScoreStore store = ScoreStore.open(file, null)) {
+            store.append(1000L, GameMode.CLASSIC, 3, 5);
+            store.sync();
+        }
+        long committedSize = Files.size(file);
+        // 模拟写记录时中断：末尾多出一条半未计入文件头的数据
+        Files.write(file, new byte[30], StandardOpenOption.APPEND);
+
+        try (ScoreStore store = ScoreStore.open(file, null)) {
+            assertEquals(1, store.getRecordCount());
+            assertEquals(List.of("1000 CLASSIC 3 5"), records(store));
+        }
+        assertEquals(committedSize, Files.size(file));
+    }
+
+    @Test
+    void rejectsFilesThatAreNotScoreStores() throws IOException {
+        Path file = dir.resolve("scores.dat");
+        Files.write(file, new byte[200]);
+        assertThrows(IOException.class, () -> ScoreStore.open(file, null));
+    }
+
+    @Test
+    void importsLegacyTextFileOnlyWhenCreatingTheStore() throws IOException {
+        Path legacy = dir.resolve("scores.txt");
+        // 旧版程序用 FileWriter 按平台默认编码写入
+        Files.write(legacy, List.of(
+                "时间: 2024-01-01 12:00:00  分数: 12  模式: 单人模式  已玩时间: 30秒",
+                "时间: 2024-01-02 08:30:00  分数: 25  模式: AI对战模式  已玩时间: 61秒",
+                "这一行无法识别",
+                "时间: 2024-01-03 09:00:00  分数: 9  模式: 不存在的模式  已玩时间: 5秒",
+                "单人模式最高分:50",
+                "AI对战模式最高分:25"), Charset.defaultCharset());
+        Path file = dir.resolve("scores.dat");
+
+        try (ScoreStore store = ScoreStore.open(file, legacy)) {
+            assertEquals(2, store.getRecordCount());
+            // 最高分行里的分数可能来自已不在文件中的记录
+            assertEquals(50, store.getBest(GameMode.CLASSIC));
+            assertEquals(25, store.getBest(GameMode.AI));
+            long time = LocalDateTime.of(2024, 1, 1, 12, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            assertEquals(time + " CLASSIC 12 30", records(store).get(0));
+            assertEquals(2, records(store).size());
+        }
+
+        // 文件已存在时不再重复导入
+        try (ScoreStore store = ScoreStore.open(file, legacy)) {
+            assertEquals(2, store.getRecordCount());
+        }
+    }
+
+    private static List<String> records(ScoreStore store) throws IOException {
+        List<String> out = new ArrayList<>();
+        store.forEach((time, mode, score, durationSec) -> out.add(time + " " + mode + " " + score + " " + durationSec));
+        return out;
+    }
+}
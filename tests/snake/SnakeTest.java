@@ -0,0 +1,150 @@
+package snake;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Snake 环形缓冲区的测试：与按节保存的简单模型逐步对照
+ */
+class SnakeTest {
+    @Test
+    void startsWithTwoBodySegmentsLeftOfTheHead() {
+        Snake snake = new Snake(Cell.of(5, 5));
+        assertEquals(Cell.of(5, 5), snake.getHeadCell());
+        assertEquals(2, snake.getTailSize());
+        assertEquals(Cell.of(4, 5), snake.getTailCell(0));
+        assertEquals(Cell.of(3, 5), snake.getTailCell(1));
+        assertEquals(Direction.RIGHT, snake.getDirection());
+    }
+
+    @Test
+    void matchesAReferenceModelWhileMovingGrowingAndShrinking() {
+        Random rand = new Random(1);
+        Snake snake = new Snake(Cell.of(0, 0));
+        ArrayDeque<Integer> model = new ArrayDeque<>();  // 蛇头在前
+        model.add(Cell.of(0, 0));
+        model.add(Cell.of(-1, 0));
+        model.add(Cell.of(-2, 0));
+        Direction[] dirs = Direction.values();
+
+        // 足够多的增长让缓冲区多次扩容，并在头指针绕回后继续移动
+        for (int step = 0; step < 5000; step++) {
+            int op = rand.nextInt(10);
+            if (op < 3) {
+                snake.setNeedGrow();
+                move(snake, model, dirs[rand.nextInt(4)], true);
+            } else if (op == 3 && model.size() > 1) {
+                int amount = 1 + rand.nextInt(3);
+                snake.shrink(amount);
+                for (int i = 0; i < amount && model.size() > 1; i++) model.removeLast();
+            } else {
+                move(snake, model, dirs[rand.nextInt(4)], false);
+            }
+            if (step % 97 == 0) assertSameBody(model, snake);
+        }
+        assertSameBody(model, snake);
+    }
+
+    @Test
+    void tailContainsSkipsTheHeadAndLeadingSegments() {
+        Snake snake = new Snake(Cell.of(5, 5));
+        assertTrue(snake.tailContains(Cell.of(3, 5), 0));
+        assertFalse(snake.tailContains(Cell.of(5, 5), 0));  // 蛇头不算
+        assertFalse(snake.tailContains(Cell.of(4, 5), 1));  // 第0节被跳过
+
+        // 增长时蛇尾在同一格重叠两次
+        snake.addTail();
+        assertEquals(2, snake.count(Cell.of(3, 5)));
+        assertTrue(snake.tailContains(Cell.of(3, 5), 1));
+    }
+
+    @Test
+    void turnRejectsReversalButForceTurnDoesNot() {
+        Snake snake = new Snake(Cell.of(5, 5));
+        snake.turn(Direction.LEFT);
+        assertEquals(Direction.RIGHT, snake.getDirection());
+        snake.turn(Direction.UP);
+        assertEquals(Direction.UP, snake.getDirection());
+        snake.forceTurn(Direction.DOWN);
+        assertEquals(Direction.DOWN, snake.getDirection());
+    }
+
+    @Test
+    void keepsTheBoardInSyncAndReleasesItOnRemoval() {
+        FreeCellIndex board = new FreeCellIndex(10, 10);
+        Snake snake = new Snake(Cell.of(5, 5), board);
+        assertEquals(97, board.getFreeCount());
+        snake.setNeedGrow();
+        snake.move();
+        assertEquals(96, board.getFreeCount());
+        assertFalse(board.isFree(Cell.of(6, 5)));
+        snake.move();
+        assertTrue(board.isFree(Cell.of(3, 5)));
+        snake.removeFromBoard();
+        assertEquals(100, board.getFreeCount());
+    }
+
+    @Test
+    void stateRoundTripsThroughWriteAndRead() throws IOException {
+        Snake snake = new Snake(Cell.of(2, 0));
+        for (int i = 0; i < 100; i++) {
+            if (i % 2 == 0) snake.setNeedGrow();
+            snake.forceTurn(i % 40 < 20 ? Direction.RIGHT : Direction.DOWN);
+            snake.move();
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snake.writeState(new DataOutputStream(bytes));
+        Snake copy = Snake.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), null);
+
+        assertEquals(snake.getDirection(), copy.getDirection());
+        assertArrayEquals(cells(snake), cells(copy));
+        for (int i = 0; i < 10; i++) {
+            snake.move();
+            copy.move();
+        }
+        assertArrayEquals(cells(snake), cells(copy));
+        for (int cell : cells(snake)) {
+            assertEquals(snake.count(cell), copy.count(cell));
+        }
+    }
+
+    // 两边同时移动一步
+    private static void move(Snake snake, ArrayDeque<Integer> model, Direction d, boolean grow) {
+        snake.forceTurn(d);
+        snake.move();
+        model.addFirst(Cell.step(model.getFirst(), d));
+        if (!grow) model.removeLast();
+    }
+
+    // 各节位置、包含查询与模型一致
+    private static void assertSameBody(ArrayDeque<Integer> model, Snake snake) {
+        int[] expected = model.stream().mapToInt(Integer::intValue).toArray();
+        assertArrayEquals(expected, cells(snake));
+        for (int cell : expected) {
+            int n = 0;
+            for (int c : expected) {
+                if (c == cell) n++;
+            }
+            // 游戏区域外的格子不计入占用网格
+            assertEquals(Cell.inBounds(cell) ? n : 0, snake.count(cell));
+        }
+    }
+
+    private static int[] cells(Snake snake) {
+        int[] out = new int[snake.getTailSize() + 1];
+        snake.copyTo(out, 0);
+        return out;
+    }
+}
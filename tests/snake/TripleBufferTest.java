@@ -0,0 +1,72 @@
+package snake;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * TripleBuffer 发布/读取语义和并发下数据完整性的测试
+ */
+class TripleBufferTest {
+    private static final int PUBLISHES = 2_000_000;  // 并发测试中的发布次数
+
+    // 测试用的缓冲：两个字段总是一起写入相同的值，读到不相等即说明数据被撕裂
+    static final class Frame {
+        long a;
+        long b;
+    }
+
+    @Test
+    void readerSeesTheLatestPublishedBuffer() {
+        TripleBuffer<Frame> buffer = new TripleBuffer<>(Frame::new);
+        Frame initial = buffer.getReadBuffer();
+        assertEquals(0, initial.a);
+
+        Frame w = buffer.getWriteBuffer();
+        w.a = 1;
+        buffer.publish();
+        w = buffer.getWriteBuffer();
+        w.a = 2;
+        buffer.publish();  // 覆盖尚未读取的第1帧
+
+        Frame r = buffer.getReadBuffer();
+        assertEquals(2, r.a);
+        assertSame(r, buffer.getReadBuffer());  // 没有新数据时返回同一个缓冲
+        assertNotSame(r, buffer.getWriteBuffer());
+    }
+
+    @Test
+    void concurrentReaderNeverSeesTornOrOlderFrames() throws InterruptedException {
+        TripleBuffer<Frame> buffer = new TripleBuffer<>(Frame::new);
+        AtomicReference<String> error = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            for (long n = 1; n <= PUBLISHES; n++) {
+                Frame f = buffer.getWriteBuffer();
+                f.a = n;
+                f.b = n;
+                buffer.publish();
+            }
+        });
+        writer.start();
+        long last = 0;
+        long reads = 0;
+        while (last < PUBLISHES && error.get() == null) {
+            Frame f = buffer.getReadBuffer();
+            long a = f.a;
+            long b = f.b;
+            if (a != b) error.set("撕裂的帧: " + a + " / " + b);
+            if (a < last) error.set("帧倒退: " + a + " < " + last);
+            last = a;
+            reads++;
+        }
+        writer.join();
+        assertEquals(null, error.get());
+        assertEquals(PUBLISHES, buffer.getReadBuffer().a);
+        assertTrue(reads > 0);
+    }
+}